@@ -238,6 +238,16 @@ public class CommonConstants {
      */
     public static final int FORTY_THREE = 43;
 
+    /**
+     * FIFTY.
+     */
+    public static final int FIFTY = 50;
+
+    /**
+     * NINETY.
+     */
+    public static final int NINETY = 90;
+
     /**
      * ONE_HUNDRED.
      */
@@ -258,4 +258,34 @@ public class PropertyKeyConstants {
      * MEMBERSHIP_RENEWAL_THIRD_MSG_DAYS_KEY.
      */
     public static final String MEMBERSHIP_RENEWAL_THIRD_MSG_DAYS_KEY = "MEMBERSHIP_RENEWAL_THIRD_MSG_DAYS_KEY";
+
+    /**
+     * ROSTER_SYNC_BATCH_SIZE_KEY.
+     */
+    public static final String ROSTER_SYNC_BATCH_SIZE_KEY = "ROSTER_SYNC_BATCH_SIZE_KEY";
+
+    /**
+     * ROSTER_SYNC_WORKER_THREADS_KEY.
+     */
+    public static final String ROSTER_SYNC_WORKER_THREADS_KEY = "ROSTER_SYNC_WORKER_THREADS_KEY";
+
+    /**
+     * MEMBER_TOMBSTONE_RETENTION_DAYS_KEY.
+     */
+    public static final String MEMBER_TOMBSTONE_RETENTION_DAYS_KEY = "MEMBER_TOMBSTONE_RETENTION_DAYS_KEY";
+
+    /**
+     * MEMBER_PAGE_SIZE_KEY.
+     */
+    public static final String MEMBER_PAGE_SIZE_KEY = "MEMBER_PAGE_SIZE_KEY";
+
+    /**
+     * RFID_ALLOWLIST_SIGNING_KEY.
+     */
+    public static final String RFID_ALLOWLIST_SIGNING_KEY = "RFID_ALLOWLIST_SIGNING_KEY";
+
+    /**
+     * ACCESS_EVENT_BUFFER_SIZE_KEY.
+     */
+    public static final String ACCESS_EVENT_BUFFER_SIZE_KEY = "ACCESS_EVENT_BUFFER_SIZE_KEY";
 }
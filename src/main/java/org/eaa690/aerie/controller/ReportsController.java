@@ -16,18 +16,36 @@
 
 package org.eaa690.aerie.controller;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.eaa690.aerie.exception.InvalidPayloadException;
+import org.eaa690.aerie.model.MemberIndexQueryResult;
 import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.model.MembershipTrendPeriod;
+import org.eaa690.aerie.model.ReportCacheStats;
+import org.eaa690.aerie.model.TrendGranularity;
+import org.eaa690.aerie.service.MemberColumnIndex;
+import org.eaa690.aerie.service.MembershipTrendService;
+import org.eaa690.aerie.service.ReportRenderer;
 import org.eaa690.aerie.service.RosterService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.ui.Model;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 @RestController
@@ -132,6 +150,21 @@ public class ReportsController {
      */
     private RosterService rosterService;
 
+    /**
+     * MembershipTrendService.
+     */
+    private MembershipTrendService membershipTrendService;
+
+    /**
+     * ReportRenderer.
+     */
+    private ReportRenderer reportRenderer;
+
+    /**
+     * MemberColumnIndex.
+     */
+    private MemberColumnIndex memberColumnIndex;
+
     /**
      * Sets RosterService.
      *
@@ -142,6 +175,36 @@ public class ReportsController {
         rosterService = value;
     }
 
+    /**
+     * Sets MembershipTrendService.
+     *
+     * @param value MembershipTrendService
+     */
+    @Autowired
+    public void setMembershipTrendService(final MembershipTrendService value) {
+        membershipTrendService = value;
+    }
+
+    /**
+     * Sets ReportRenderer.
+     *
+     * @param value ReportRenderer
+     */
+    @Autowired
+    public void setReportRenderer(final ReportRenderer value) {
+        reportRenderer = value;
+    }
+
+    /**
+     * Sets MemberColumnIndex.
+     *
+     * @param value MemberColumnIndex
+     */
+    @Autowired
+    public void setMemberColumnIndex(final MemberColumnIndex value) {
+        memberColumnIndex = value;
+    }
+
     /**
      * Constructor.
      *
@@ -154,8 +217,8 @@ public class ReportsController {
     /**
      * Membership Report.
      *
-     * @param model Model
-     * @return report
+     * @param request WebRequest
+     * @return report HTML, or 304 when unchanged since the ETag provided
      */
     @Operation(summary = "Membership report",
         description = "General membership view of the membership report",
@@ -165,21 +228,22 @@ public class ReportsController {
                 description = "successful operation")
     })
     @GetMapping({"/membershipreport"})
-    public String membershipReport(final Model model) {
+    public ResponseEntity<String> membershipReport(final WebRequest request) {
         final MembershipReport membershipReport = rosterService.getMembershipReport();
-        model.addAttribute(REGULAR_MEMBERSHIP_COUNT, membershipReport.getRegularMemberCount());
-        model.addAttribute(FAMILY_MEMBERSHIP_COUNT, membershipReport.getFamilyMembershipCount());
-        model.addAttribute(FAMILY_MEMBER_COUNT, membershipReport.getFamilyMemberCount());
-        model.addAttribute(STUDENT_MEMBERSHIP_COUNT, membershipReport.getStudentMemberCount());
-        model.addAttribute(LIFETIME_MEMBERSHIP_COUNT, membershipReport.getLifetimeMemberCount());
-        return "membershipreport";
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(REGULAR_MEMBERSHIP_COUNT, membershipReport.getRegularMemberCount());
+        attributes.put(FAMILY_MEMBERSHIP_COUNT, membershipReport.getFamilyMembershipCount());
+        attributes.put(FAMILY_MEMBER_COUNT, membershipReport.getFamilyMemberCount());
+        attributes.put(STUDENT_MEMBERSHIP_COUNT, membershipReport.getStudentMemberCount());
+        attributes.put(LIFETIME_MEMBERSHIP_COUNT, membershipReport.getLifetimeMemberCount());
+        return reportRenderer.render("membershipreport", attributes, request);
     }
 
     /**
      * Full Membership Report.
      *
-     * @param model Model
-     * @return report
+     * @param request WebRequest
+     * @return report HTML, or 304 when unchanged since the ETag provided
      */
     @Operation(summary = "Full membership report",
             description = "Board of Directors view of the membership report",
@@ -189,32 +253,110 @@ public class ReportsController {
                     description = "successful operation")
     })
     @GetMapping({"/fullmembershipreport"})
-    public String fullMembershipReport(final Model model) {
+    public ResponseEntity<String> fullMembershipReport(final WebRequest request) {
         final MembershipReport membershipReport = rosterService.getMembershipReport();
-        model.addAttribute(REGULAR_MEMBERSHIP_COUNT, membershipReport.getRegularMemberCount());
-        model.addAttribute(REGULAR_MEMBERSHIP_EXPIRED_COUNT, membershipReport.getRegularMemberExpiredCount());
-        model.addAttribute(REGULAR_MEMBERSHIP_WILL_EXPIRE_30_COUNT,
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(REGULAR_MEMBERSHIP_COUNT, membershipReport.getRegularMemberCount());
+        attributes.put(REGULAR_MEMBERSHIP_EXPIRED_COUNT, membershipReport.getRegularMemberExpiredCount());
+        attributes.put(REGULAR_MEMBERSHIP_WILL_EXPIRE_30_COUNT,
                 membershipReport.getRegularMemberWillExpire30DaysCount());
-        model.addAttribute(REGULAR_MEMBERSHIP_WILL_EXPIRE_7_COUNT,
+        attributes.put(REGULAR_MEMBERSHIP_WILL_EXPIRE_7_COUNT,
                 membershipReport.getRegularMemberWillExpire7DaysCount());
-        model.addAttribute(FAMILY_MEMBERSHIP_COUNT, membershipReport.getFamilyMembershipCount());
-        model.addAttribute(FAMILY_MEMBERSHIP_EXPIRED_COUNT, membershipReport.getFamilyMembershipExpiredCount());
-        model.addAttribute(FAMILY_MEMBERSHIP_WILL_EXPIRE_30_COUNT,
+        attributes.put(FAMILY_MEMBERSHIP_COUNT, membershipReport.getFamilyMembershipCount());
+        attributes.put(FAMILY_MEMBERSHIP_EXPIRED_COUNT, membershipReport.getFamilyMembershipExpiredCount());
+        attributes.put(FAMILY_MEMBERSHIP_WILL_EXPIRE_30_COUNT,
                 membershipReport.getFamilyMembershipWillExpire30DaysCount());
-        model.addAttribute(FAMILY_MEMBERSHIP_WILL_EXPIRE_7_COUNT,
+        attributes.put(FAMILY_MEMBERSHIP_WILL_EXPIRE_7_COUNT,
                 membershipReport.getFamilyMembershipWillExpire7DaysCount());
-        model.addAttribute(FAMILY_MEMBER_COUNT, membershipReport.getFamilyMemberCount());
-        model.addAttribute(FAMILY_MEMBER_EXPIRED_COUNT, membershipReport.getFamilyMemberExpiredCount());
-        model.addAttribute(FAMILY_MEMBER_WILL_EXPIRE_30_COUNT, membershipReport.getFamilyMemberWillExpire30DaysCount());
-        model.addAttribute(FAMILY_MEMBER_WILL_EXPIRE_7_COUNT, membershipReport.getFamilyMemberWillExpire7DaysCount());
-        model.addAttribute(STUDENT_MEMBERSHIP_COUNT, membershipReport.getStudentMemberCount());
-        model.addAttribute(STUDENT_MEMBERSHIP_EXPIRED_COUNT, membershipReport.getStudentMemberExpiredCount());
-        model.addAttribute(STUDENT_MEMBERSHIP_WILL_EXPIRE_30_COUNT,
+        attributes.put(FAMILY_MEMBER_COUNT, membershipReport.getFamilyMemberCount());
+        attributes.put(FAMILY_MEMBER_EXPIRED_COUNT, membershipReport.getFamilyMemberExpiredCount());
+        attributes.put(FAMILY_MEMBER_WILL_EXPIRE_30_COUNT, membershipReport.getFamilyMemberWillExpire30DaysCount());
+        attributes.put(FAMILY_MEMBER_WILL_EXPIRE_7_COUNT, membershipReport.getFamilyMemberWillExpire7DaysCount());
+        attributes.put(STUDENT_MEMBERSHIP_COUNT, membershipReport.getStudentMemberCount());
+        attributes.put(STUDENT_MEMBERSHIP_EXPIRED_COUNT, membershipReport.getStudentMemberExpiredCount());
+        attributes.put(STUDENT_MEMBERSHIP_WILL_EXPIRE_30_COUNT,
                 membershipReport.getStudentMemberWillExpire30DaysCount());
-        model.addAttribute(STUDENT_MEMBERSHIP_WILL_EXPIRE_7_COUNT,
+        attributes.put(STUDENT_MEMBERSHIP_WILL_EXPIRE_7_COUNT,
                 membershipReport.getStudentMemberWillExpire7DaysCount());
-        model.addAttribute(LIFETIME_MEMBERSHIP_COUNT, membershipReport.getLifetimeMemberCount());
-        model.addAttribute(NON_MEMBERSHIP_COUNT, membershipReport.getNonMemberCount());
-        return "fullmembershipreport";
+        attributes.put(LIFETIME_MEMBERSHIP_COUNT, membershipReport.getLifetimeMemberCount());
+        attributes.put(NON_MEMBERSHIP_COUNT, membershipReport.getNonMemberCount());
+        return reportRenderer.render("fullmembershipreport", attributes, request);
+    }
+
+    /**
+     * Membership trend.
+     *
+     * @param granularity DAY, WEEK or MONTH
+     * @param from earliest period start (defaults to one year before to)
+     * @param to latest period start (defaults to today)
+     * @return MembershipReport counters per period
+     */
+    @Operation(summary = "Membership trend",
+            description = "Daily, weekly or monthly history of the membership report counters",
+            tags = {"reports"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "successful operation")
+    })
+    @GetMapping({"/trend"})
+    public List<MembershipTrendPeriod> membershipTrend(
+            @RequestParam(required = false, value = "granularity", defaultValue = "DAY")
+            final TrendGranularity granularity,
+            @RequestParam(required = false, value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate from,
+            @RequestParam(required = false, value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate to) {
+        final LocalDate end = Optional.ofNullable(to).orElse(LocalDate.now());
+        final LocalDate start = Optional.ofNullable(from).orElse(end.minusYears(1));
+        return membershipTrendService.getTrend(granularity, start, end);
+    }
+
+    /**
+     * Rendered report cache statistics.
+     *
+     * @return ReportCacheStats
+     */
+    @Operation(summary = "Report cache statistics",
+            description = "Hit ratio of the rendered membership report cache",
+            tags = {"reports"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "successful operation")
+    })
+    @GetMapping({"/cache-stats"})
+    public ReportCacheStats reportCacheStats() {
+        return reportRenderer.getStats();
+    }
+
+    /**
+     * Ad-hoc member counts.
+     *
+     * Filters are read from the raw "filter" parameters of the form column:value[,value...], all of which must
+     * match.  Binding them to a list would split a single filter's values on the commas.
+     *
+     * @param request WebRequest
+     * @param groupBy column to group the count by
+     * @return MemberIndexQueryResult
+     * @throws InvalidPayloadException when a filter or the group-by column is not valid
+     */
+    @Operation(summary = "Member counts",
+            description = "Counts members matching filters, optionally grouped by a column",
+            tags = {"reports"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "successful operation"),
+            @ApiResponse(responseCode = "400",
+                    description = "unknown column or invalid flag value")
+    })
+    @GetMapping({"/member-counts"})
+    public MemberIndexQueryResult memberCounts(
+            final WebRequest request,
+            @RequestParam(required = false, value = "groupBy") final String groupBy)
+            throws InvalidPayloadException {
+        final String[] filters = request.getParameterValues("filter");
+        if (filters == null) {
+            return memberColumnIndex.query(null, groupBy);
+        }
+        return memberColumnIndex.query(Arrays.asList(filters), groupBy);
     }
 }
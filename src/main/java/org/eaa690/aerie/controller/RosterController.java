@@ -16,14 +16,32 @@
 
 package org.eaa690.aerie.controller;
 
+import org.eaa690.aerie.exception.InvalidPayloadException;
+import org.eaa690.aerie.exception.ResourceExistsException;
 import org.eaa690.aerie.exception.ResourceNotFoundException;
+import org.eaa690.aerie.model.MemberChangeFeed;
 import org.eaa690.aerie.model.MemberData;
+import org.eaa690.aerie.model.MemberDataPage;
+import org.eaa690.aerie.model.AccessEventStats;
 import org.eaa690.aerie.model.FindByRFIDResponse;
-import org.eaa690.aerie.model.Member;
 import org.eaa690.aerie.model.RFIDRequest;
+import org.eaa690.aerie.model.RfidIndexEntry;
+import org.eaa690.aerie.model.RfidIndexStats;
 import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.model.RosterSyncRun;
+import org.eaa690.aerie.model.RosterSyncRunSummary;
+import org.eaa690.aerie.service.AccessEventService;
+import org.eaa690.aerie.service.MemberChangeFeedService;
+import org.eaa690.aerie.service.MemberExportService;
 import org.eaa690.aerie.service.RosterService;
+import org.eaa690.aerie.service.RosterSyncCoordinator;
+import org.eaa690.aerie.service.RosterSyncHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -31,10 +49,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
 
 /**
  * RosterController.
@@ -51,6 +73,31 @@ public class RosterController {
      */
     private RosterService rosterService;
 
+    /**
+     * RosterSyncHistoryService.
+     */
+    private RosterSyncHistoryService rosterSyncHistoryService;
+
+    /**
+     * RosterSyncCoordinator.
+     */
+    private RosterSyncCoordinator rosterSyncCoordinator;
+
+    /**
+     * MemberExportService.
+     */
+    private MemberExportService memberExportService;
+
+    /**
+     * MemberChangeFeedService.
+     */
+    private MemberChangeFeedService memberChangeFeedService;
+
+    /**
+     * AccessEventService.
+     */
+    private AccessEventService accessEventService;
+
     /**
      * Sets RosterService.
      *
@@ -62,13 +109,87 @@ public class RosterController {
     }
 
     /**
-     * Updates data from roster database.
+     * Sets RosterSyncHistoryService.
+     *
+     * @param value RosterSyncHistoryService
+     */
+    @Autowired
+    public void setRosterSyncHistoryService(final RosterSyncHistoryService value) {
+        rosterSyncHistoryService = value;
+    }
+
+    /**
+     * Sets RosterSyncCoordinator.
+     *
+     * @param value RosterSyncCoordinator
+     */
+    @Autowired
+    public void setRosterSyncCoordinator(final RosterSyncCoordinator value) {
+        rosterSyncCoordinator = value;
+    }
+
+    /**
+     * Sets MemberExportService.
+     *
+     * @param value MemberExportService
+     */
+    @Autowired
+    public void setMemberExportService(final MemberExportService value) {
+        memberExportService = value;
+    }
+
+    /**
+     * Sets MemberChangeFeedService.
+     *
+     * @param value MemberChangeFeedService
+     */
+    @Autowired
+    public void setMemberChangeFeedService(final MemberChangeFeedService value) {
+        memberChangeFeedService = value;
+    }
+
+    /**
+     * Sets AccessEventService.
+     *
+     * @param value AccessEventService
+     */
+    @Autowired
+    public void setAccessEventService(final AccessEventService value) {
+        accessEventService = value;
+    }
+
+    /**
+     * Starts an update of data from roster database, or joins the one already in progress.
+     *
+     * @return RosterSyncRun to be polled for status
      */
     @PostMapping(path = {
             "/update"
     })
-    public void update() {
-        rosterService.update();
+    public RosterSyncRun update() {
+        return rosterSyncCoordinator.trigger();
+    }
+
+    /**
+     * Gets recent roster sync runs with p50/p95 fetch, map and persist durations.
+     *
+     * @return RosterSyncRunSummary
+     */
+    @GetMapping(path = {"/sync-runs"})
+    public RosterSyncRunSummary getSyncRuns() {
+        return rosterSyncHistoryService.getSummary();
+    }
+
+    /**
+     * Gets the status of a roster sync run.
+     *
+     * @param runId RosterSyncRun ID
+     * @return RosterSyncRun
+     * @throws ResourceNotFoundException when no run is found
+     */
+    @GetMapping(path = {"/sync-runs/{runId}"})
+    public RosterSyncRun getSyncRun(@PathVariable("runId") final Long runId) throws ResourceNotFoundException {
+        return rosterSyncHistoryService.getRun(runId);
     }
 
     /**
@@ -92,13 +213,7 @@ public class RosterController {
     @GetMapping(path = {"/{memberId}/expiration"})
     public MemberData getMemberData(@PathVariable("memberId") final Long memberId)
             throws ResourceNotFoundException {
-        final Member member = rosterService.getMemberByRosterID(memberId);
-        final MemberData record = new MemberData();
-        record.setId(member.getId());
-        record.setExpirationDate(member.getExpiration());
-        record.setRfid(member.getRfid());
-        record.setName(member.getFirstName() + " " + member.getLastName());
-        return record;
+        return rosterService.getMemberDataByRosterID(memberId);
     }
 
     /**
@@ -107,46 +222,141 @@ public class RosterController {
      * @param memberId Member's Roster ID
      * @param rfidRequest RFIDRequest
      * @throws ResourceNotFoundException when no member data is found
+     * @throws ResourceExistsException when the RFID is assigned to another member
      */
     @PutMapping(path = {"/{memberId}/rfid"})
     public void updateRFID(@PathVariable("memberId") final Long memberId, @RequestBody final RFIDRequest rfidRequest)
-            throws ResourceNotFoundException {
+            throws ResourceNotFoundException, ResourceExistsException {
         rosterService.updateMemberRFID(memberId, rfidRequest.getRfid());
     }
 
     /**
      * Retrieves a member's ID (and whether or not they are an admin) from the provided RFID.
      *
+     * Unknown RFIDs get an empty 404 rather than an exception, as most of them are bad scans.  Every scan is
+     * recorded as an access event.
+     *
      * @param rfidRequest RFIDRequest
-     * @return FindByRFIDResponse
-     * @throws ResourceNotFoundException when RFID is not found
+     * @return FindByRFIDResponse, or 404 when RFID is not found
      */
     @PostMapping(path = {"/find-by-id"})
-    public FindByRFIDResponse findByRFID(@RequestBody final RFIDRequest rfidRequest) throws ResourceNotFoundException {
-        final Member member = rosterService.getMemberByRFID(rfidRequest.getRfid());
+    public ResponseEntity<FindByRFIDResponse> findByRFID(@RequestBody final RFIDRequest rfidRequest) {
+        final long start = System.nanoTime();
+        final Optional<RfidIndexEntry> entry = rosterService.getRfidIndexEntry(rfidRequest.getRfid());
+        accessEventService.record(rfidRequest.getRfid(), entry.map(RfidIndexEntry::getMemberId).orElse(null),
+                System.nanoTime() - start);
+        if (entry.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
         final FindByRFIDResponse rfidResponse = new FindByRFIDResponse();
-        rfidResponse.setId(member.getId());
+        rfidResponse.setId(entry.get().getMemberId());
         rfidResponse.setAdmin(Boolean.FALSE); // TODO
-        return rfidResponse;
+        return ResponseEntity.ok(rfidResponse);
     }
 
     /**
-     * Gets all member's RFID data.
+     * Gets the badge scan buffer and writer counters, including scans dropped because the buffer was full.
      *
-     * @return list of MemberData
+     * @return AccessEventStats
+     */
+    @GetMapping(path = {"/access-events/stats"})
+    public AccessEventStats getAccessEventStats() {
+        return accessEventService.getStats();
+    }
+
+    /**
+     * Gets the in-memory RFID index size and badge lookup latency.
+     *
+     * @return RfidIndexStats
+     */
+    @GetMapping(path = {"/rfid-index/stats"})
+    public RfidIndexStats getRfidIndexStats() {
+        return rosterService.getRfidIndexStats();
+    }
+
+    /**
+     * Gets the signed binary allowlist of active RFIDs for door controllers to cache.  A controller passes the
+     * version it holds as since to receive only the changes, and gets a 304 when If-None-Match names the current
+     * version.
+     *
+     * @param since allowlist version held by the caller
+     * @param request WebRequest
+     * @return signed allowlist
+     * @throws ResourceNotFoundException when no signing key is configured
      */
-    @GetMapping(path = {"/all-rfid"})
-    public List<MemberData> allMemberRFIDData() {
-        final List<MemberData> records = new ArrayList<>();
-        final List<Member> members = rosterService.getAllMembers();
-        for (Member member : members) {
-            final MemberData record = new MemberData();
-            record.setId(member.getId());
-            record.setExpirationDate(member.getExpiration());
-            record.setRfid(member.getRfid());
-            record.setName(member.getFirstName() + " " + member.getLastName());
-            records.add(record);
+    @GetMapping(path = {"/allowlist"}, produces = {MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<byte[]> getRfidAllowlist(
+            @RequestParam(required = false, value = "since") final Long since,
+            final WebRequest request) throws ResourceNotFoundException {
+        final String eTag = "\"" + rosterService.getRfidAllowlistVersion() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
         }
-        return records;
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(rosterService.getRfidAllowlist(since));
+    }
+
+    /**
+     * Gets all member's RFID data.  Rows are streamed to the response as they are read from the database.
+     *
+     * @return list of MemberData
+     */
+    @GetMapping(path = {"/all-rfid"}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> allMemberRFIDData() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(memberExportService::exportMemberDataJson);
+    }
+
+    /**
+     * Gets one page of member's RFID data, in ID order.  Pass the returned nextCursor to get the following page.
+     *
+     * @param cursor cursor from the previous page
+     * @param limit page size
+     * @param updatedSince only include members updated at or after this time (ISO-8601)
+     * @return MemberDataPage
+     * @throws InvalidPayloadException when the cursor is not valid
+     */
+    @GetMapping(path = {"/rfid"})
+    public MemberDataPage pageMemberRFIDData(
+            @RequestParam(required = false, value = "cursor") final String cursor,
+            @RequestParam(required = false, value = "limit") final Integer limit,
+            @RequestParam(required = false, value = "updatedSince")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Date updatedSince)
+            throws InvalidPayloadException {
+        return rosterService.getMemberDataPage(cursor, limit, updatedSince);
     }
+
+    /**
+     * Gets members created, updated or tombstoned since the provided watermark.  Pass the returned watermark as
+     * since on the next request; omit it to start from the beginning.
+     *
+     * @param since watermark from the previous response
+     * @param limit maximum number of changes
+     * @return MemberChangeFeed
+     * @throws InvalidPayloadException when the watermark is not valid
+     */
+    @GetMapping(path = {"/changes"})
+    public MemberChangeFeed getMemberChanges(
+            @RequestParam(required = false, value = "since") final String since,
+            @RequestParam(required = false, value = "limit") final Integer limit)
+            throws InvalidPayloadException {
+        return memberChangeFeedService.getChanges(since, limit);
+    }
+
+    /**
+     * Exports all members as CSV.  Rows are streamed to the response as they are read from the database.
+     *
+     * @return CSV export
+     */
+    @GetMapping(path = {"/export"}, produces = {"text/csv"})
+    public ResponseEntity<StreamingResponseBody> exportMembers() {
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members.csv\"")
+                .body(memberExportService::exportCsv);
+    }
+
 }
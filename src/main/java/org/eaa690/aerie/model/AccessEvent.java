@@ -0,0 +1,82 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * AccessEvent.  A single badge scan.
+ */
+@Entity
+@Table(name = "ACCESS_EVENT",
+        indexes = {
+                @Index(name = "idx_access_event_scanned_at", columnList = "scannedAt")
+        })
+@Getter
+@Setter
+public class AccessEvent extends BaseEntity {
+
+    /**
+     * Default SerialVersionUID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * RFID scanned.
+     */
+    private String rfid;
+
+    /**
+     * ID of the member holding the RFID, if any.
+     */
+    private Long memberId;
+
+    /**
+     * Result.
+     */
+    @Enumerated(EnumType.STRING)
+    private AccessEventResult result;
+
+    /**
+     * Time taken to answer the scan, in nanoseconds.
+     */
+    private long latencyNanos;
+
+    /**
+     * Time of the scan.
+     */
+    private Date scannedAt;
+
+    /**
+     * Initializes an instance of <code>AccessEvent</code> with the default data.
+     */
+    public AccessEvent() {
+        super.setCreatedAt(new Date());
+        super.setUpdatedAt(new Date());
+    }
+
+}
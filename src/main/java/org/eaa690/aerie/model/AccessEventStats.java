@@ -0,0 +1,60 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * AccessEventStats.  Counters of the access event buffer and its background writer.
+ */
+@Getter
+@Setter
+public class AccessEventStats {
+
+    /**
+     * Number of events the buffer can hold.
+     */
+    private int capacity;
+
+    /**
+     * Number of events waiting to be written.
+     */
+    private int buffered;
+
+    /**
+     * Number of events accepted into the buffer.
+     */
+    private long recorded;
+
+    /**
+     * Number of events dropped because the buffer was full.
+     */
+    private long dropped;
+
+    /**
+     * Number of events written to ACCESS_EVENT.
+     */
+    private long written;
+
+    /**
+     * Number of events lost to failed writes.
+     */
+    private long writeFailures;
+
+}
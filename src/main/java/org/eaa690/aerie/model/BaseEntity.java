@@ -28,6 +28,8 @@ import javax.persistence.MappedSuperclass;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -57,7 +59,15 @@ public class BaseEntity implements Serializable {
      * ID.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aerie_id")
+    @GenericGenerator(
+            name = "aerie_id",
+            strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "aerie_id_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private Long id;
 
     /**
@@ -16,12 +16,16 @@
 
 package org.eaa690.aerie.model;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 import io.github.bsmichael.rostermanagement.model.CellPhoneProvider;
 import io.github.bsmichael.rostermanagement.model.Country;
@@ -30,23 +34,41 @@ import io.github.bsmichael.rostermanagement.model.MemberType;
 import io.github.bsmichael.rostermanagement.model.State;
 import io.github.bsmichael.rostermanagement.model.Status;
 import io.github.bsmichael.rostermanagement.model.WebAdminAccess;
+import com.google.common.hash.Hashing;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * Member.
  */
 @Entity
-@Table(name = "MEMBER")
+@Table(name = "MEMBER",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_member_roster_id", columnNames = "rosterId"),
+                @UniqueConstraint(name = "uk_member_rfid", columnNames = "rfid")
+        },
+        indexes = {
+                @Index(name = "idx_member_email", columnList = "email"),
+                @Index(name = "idx_member_tombstoned", columnList = "tombstoned"),
+                @Index(name = "idx_member_expiration", columnList = "expiration"),
+                @Index(name = "idx_member_updated_at", columnList = "updated_at, id")
+        })
 @Getter
 @Setter
-public class Member extends BaseEntity {
+public class Member extends BaseEntity implements MembershipReportMember, RfidIndexRow {
 
     /**
      * Date representing the beginning of dates.
      */
     private static final Date ZERO_DATE = new Date(0);
 
+    /**
+     * Length of a hex encoded SHA-256 hash.
+     */
+    private static final int CONTENT_HASH_LENGTH = 64;
+
     /**
      * Roster management system ID.
      */
@@ -281,6 +303,24 @@ public class Member extends BaseEntity {
      */
     private boolean slackEnabled = false;
 
+    /**
+     * Hash of the roster data last synced for this member.
+     */
+    @Column(name = "content_hash", length = CONTENT_HASH_LENGTH)
+    private String contentHash;
+
+    /**
+     * Tombstone flag, set when the member is no longer in the roster feed.
+     */
+    @Column(name = "tombstoned", nullable = false)
+    private boolean tombstoned = false;
+
+    /**
+     * Date the member was tombstoned.
+     */
+    @Column(name = "tombstoned_at")
+    private Date tombstonedAt;
+
     /**
      * Sets Slack.
      *
@@ -317,4 +357,16 @@ public class Member extends BaseEntity {
         return numOfFamily;
     }
 
+    /**
+     * Calculates a hash of this member's roster data, excluding database managed fields.
+     *
+     * @return hex encoded SHA-256 hash
+     */
+    public String calculateContentHash() {
+        final ReflectionToStringBuilder builder =
+                new ReflectionToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE, null, Member.class, false, false);
+        builder.setExcludeFieldNames("contentHash", "tombstoned", "tombstonedAt");
+        return Hashing.sha256().hashString(builder.toString(), StandardCharsets.UTF_8).toString();
+    }
+
 }
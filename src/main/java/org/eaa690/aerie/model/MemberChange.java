@@ -0,0 +1,69 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * MemberChange.  A member that was created, updated or tombstoned.  Tombstoned members carry only their IDs.
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MemberChange {
+
+    /**
+     * Id.
+     */
+    private Long id;
+
+    /**
+     * Roster management system ID.
+     */
+    private Long rosterId;
+
+    /**
+     * Name.
+     */
+    private String name;
+
+    /**
+     * RFID.
+     */
+    private String rfid;
+
+    /**
+     * Expiration date.
+     */
+    private Date expirationDate;
+
+    /**
+     * Updated at.
+     */
+    private Date updatedAt;
+
+    /**
+     * True when the member was tombstoned, absent otherwise.
+     */
+    private Boolean deleted;
+
+}
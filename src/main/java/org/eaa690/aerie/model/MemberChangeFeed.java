@@ -0,0 +1,53 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * MemberChangeFeed.  Member changes since a watermark, oldest first.
+ */
+@Getter
+@Setter
+public class MemberChangeFeed {
+
+    /**
+     * Changes, in (updated at, ID) order.
+     */
+    private List<MemberChange> changes;
+
+    /**
+     * Opaque watermark to pass as since on the next request.
+     */
+    private String watermark;
+
+    /**
+     * True when more changes are waiting and the next request should be made right away.
+     */
+    private boolean hasMore;
+
+    /**
+     * True when the provided watermark predates the tombstone retention period, so deletions may have been
+     * purged and the client must resync from the full listing.
+     */
+    private boolean resyncRequired;
+
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+/**
+ * MemberChangeRow.  Projection of the Member columns published in the member change feed.
+ */
+public interface MemberChangeRow {
+
+    /**
+     * Gets ID.
+     *
+     * @return ID
+     */
+    Long getId();
+
+    /**
+     * Gets roster management system ID.
+     *
+     * @return roster ID
+     */
+    Long getRosterId();
+
+    /**
+     * Gets RFID.
+     *
+     * @return RFID
+     */
+    String getRfid();
+
+    /**
+     * Gets first name.
+     *
+     * @return first name
+     */
+    String getFirstName();
+
+    /**
+     * Gets last name.
+     *
+     * @return last name
+     */
+    String getLastName();
+
+    /**
+     * Gets membership expiration.
+     *
+     * @return expiration
+     */
+    Date getExpiration();
+
+    /**
+     * Gets updated at.
+     *
+     * @return updated at
+     */
+    Date getUpdatedAt();
+
+    /**
+     * Gets tombstone flag.
+     *
+     * @return true if tombstoned
+     */
+    boolean isTombstoned();
+
+}
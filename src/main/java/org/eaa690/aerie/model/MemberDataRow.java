@@ -0,0 +1,88 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+import lombok.Getter;
+
+/**
+ * MemberDataRow.  The Member columns behind MemberData, selected by constructor expression so that neither the
+ * full entity nor a projection proxy is built per row.
+ */
+@Getter
+public class MemberDataRow {
+
+    /**
+     * Id.
+     */
+    private final Long id;
+
+    /**
+     * First name.
+     */
+    private final String firstName;
+
+    /**
+     * Last name.
+     */
+    private final String lastName;
+
+    /**
+     * Expiration.
+     */
+    private final Date expiration;
+
+    /**
+     * RFID.
+     */
+    private final String rfid;
+
+    /**
+     * Initializes an instance of <code>MemberDataRow</code>.
+     *
+     * @param memberId ID
+     * @param first first name
+     * @param last last name
+     * @param expirationDate expiration
+     * @param rfidValue RFID
+     */
+    public MemberDataRow(final Long memberId, final String first, final String last, final Date expirationDate,
+                         final String rfidValue) {
+        id = memberId;
+        firstName = first;
+        lastName = last;
+        expiration = expirationDate;
+        rfid = rfidValue;
+    }
+
+    /**
+     * Converts to MemberData.
+     *
+     * @return MemberData
+     */
+    public MemberData toMemberData() {
+        final MemberData record = new MemberData();
+        record.setId(id);
+        record.setExpirationDate(expiration);
+        record.setRfid(rfid);
+        record.setName(firstName + " " + lastName);
+        return record;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+import io.github.bsmichael.rostermanagement.model.MemberType;
+import io.github.bsmichael.rostermanagement.model.Status;
+
+/**
+ * MemberExportRow.  Projection of the Member columns written to a roster export.
+ */
+public interface MemberExportRow {
+
+    /**
+     * Gets ID.
+     *
+     * @return ID
+     */
+    Long getId();
+
+    /**
+     * Gets roster management system ID.
+     *
+     * @return roster ID
+     */
+    Long getRosterId();
+
+    /**
+     * Gets first name.
+     *
+     * @return first name
+     */
+    String getFirstName();
+
+    /**
+     * Gets last name.
+     *
+     * @return last name
+     */
+    String getLastName();
+
+    /**
+     * Gets email.
+     *
+     * @return email
+     */
+    String getEmail();
+
+    /**
+     * Gets cell phone.
+     *
+     * @return cell phone
+     */
+    String getCellPhone();
+
+    /**
+     * Gets member type.
+     *
+     * @return member type
+     */
+    MemberType getMemberType();
+
+    /**
+     * Gets status.
+     *
+     * @return status
+     */
+    Status getStatus();
+
+    /**
+     * Gets EAA number.
+     *
+     * @return EAA number
+     */
+    String getEaaNumber();
+
+    /**
+     * Gets joined.
+     *
+     * @return joined
+     */
+    String getJoined();
+
+    /**
+     * Gets membership expiration.
+     *
+     * @return expiration
+     */
+    Date getExpiration();
+
+    /**
+     * Gets RFID.
+     *
+     * @return RFID
+     */
+    String getRfid();
+
+}
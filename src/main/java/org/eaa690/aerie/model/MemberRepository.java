@@ -16,23 +16,40 @@
 
 package org.eaa690.aerie.model;
 
+import io.github.bsmichael.rostermanagement.model.MemberType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 /**
- * MemberRepository.
+ * MemberRepository.  Lookups other than by ID and sync state exclude tombstoned members.
  */
 public interface MemberRepository extends Repository<Member, Long> {
 
     /**
-     * Gets a member.
+     * Constructor expression selecting the MemberData columns of member m.
+     */
+    String MEMBER_DATA_ROW = "new org.eaa690.aerie.model.MemberDataRow(m.id, m.firstName, m.lastName, m.expiration, "
+            + "m.rfid)";
+
+    /**
+     * Checks whether an RFID is assigned to any other member, including tombstoned members.
      *
      * @param rfid RFID
-     * @return Member
+     * @param id ID of the member to exclude
+     * @return true if another member holds the RFID
      */
-    Optional<Member> findByRfid(String rfid);
+    boolean existsByRfidAndIdNot(String rfid, Long id);
 
     /**
      * Gets a member.
@@ -48,15 +65,163 @@ public interface MemberRepository extends Repository<Member, Long> {
      * @param rosterId RosterID
      * @return Member
      */
-    Optional<Member> findByRosterId(Long rosterId);
+    @Query("SELECT m FROM Member m WHERE m.rosterId = :rosterId AND m.tombstoned = false")
+    Optional<Member> findByRosterId(@Param("rosterId") Long rosterId);
+
+    /**
+     * Gets the MemberData columns of a member.
+     *
+     * @param rosterId RosterID
+     * @return member data row
+     */
+    @Query("SELECT " + MEMBER_DATA_ROW + " FROM Member m WHERE m.rosterId = :rosterId AND m.tombstoned = false")
+    Optional<MemberDataRow> findMemberDataByRosterId(@Param("rosterId") Long rosterId);
+
+    /**
+     * Streams the MemberData columns of all members, read through a cursor 500 at a time.  The stream must be
+     * consumed and closed inside a read-only transaction.
+     *
+     * @return member data rows
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT " + MEMBER_DATA_ROW + " FROM Member m WHERE m.tombstoned = false")
+    Stream<MemberDataRow> streamMemberData();
 
     /**
      * Gets all members.
      *
      * @return all members
      */
+    @Query("SELECT m FROM Member m WHERE m.tombstoned = false")
     Optional<List<Member>> findAll();
 
+    /**
+     * Gets members of the provided types whose membership expires in [from, to).  Backed by idx_member_expiration.
+     *
+     * @param memberTypes member types
+     * @param from start of the expiration day
+     * @param to start of the following day
+     * @return members
+     */
+    @Query("SELECT m FROM Member m WHERE m.tombstoned = false AND m.memberType IN :memberTypes "
+            + "AND m.expiration >= :from AND m.expiration < :to")
+    List<Member> findByMemberTypeInAndExpirationDay(@Param("memberTypes") Collection<MemberType> memberTypes,
+                                                    @Param("from") Date from, @Param("to") Date to);
+
+    /**
+     * Gets the MemberData columns of members after the provided ID that were updated at or after the provided
+     * time, in ID order.  The Pageable supplies only the page size, as the position comes from afterId.
+     *
+     * @param afterId ID of the last member on the previous page
+     * @param updatedSince earliest updated at
+     * @param pageable page size
+     * @return member data rows
+     */
+    @Query("SELECT " + MEMBER_DATA_ROW + " FROM Member m WHERE m.tombstoned = false AND m.id > :afterId "
+            + "AND m.updatedAt >= :updatedSince ORDER BY m.id")
+    List<MemberDataRow> findPageAfter(@Param("afterId") Long afterId, @Param("updatedSince") Date updatedSince,
+                                      Pageable pageable);
+
+    /**
+     * Gets members, including tombstoned members, changed after the provided (updated at, ID) position and before
+     * the provided time, in (updated at, ID) order.  Backed by idx_member_updated_at.
+     *
+     * @param since updated at of the last change already seen
+     * @param afterId ID of the last change already seen
+     * @param until exclusive upper bound on updated at
+     * @param pageable page size
+     * @return changed members
+     */
+    @Query("SELECT m.id AS id, m.rosterId AS rosterId, m.rfid AS rfid, m.firstName AS firstName, "
+            + "m.lastName AS lastName, m.expiration AS expiration, m.updatedAt AS updatedAt, "
+            + "m.tombstoned AS tombstoned FROM Member m "
+            + "WHERE (m.updatedAt > :since OR (m.updatedAt = :since AND m.id > :afterId)) AND m.updatedAt < :until "
+            + "ORDER BY m.updatedAt, m.id")
+    List<MemberChangeRow> findChangesAfter(@Param("since") Date since, @Param("afterId") Long afterId,
+                                           @Param("until") Date until, Pageable pageable);
+
+    /**
+     * Gets the RFID index fields of all members holding an RFID.
+     *
+     * @return RFID index rows
+     */
+    @Query("SELECT m.id AS id, m.rfid AS rfid, m.expiration AS expiration, m.status AS status FROM Member m "
+            + "WHERE m.tombstoned = false AND m.rfid IS NOT NULL")
+    List<RfidIndexRow> findAllRfidIndexRows();
+
+    /**
+     * Gets the sync state of all members.
+     *
+     * @return all member sync states
+     */
+    List<MemberSyncState> findAllProjectedBy();
+
+    /**
+     * Gets member counts grouped by member type and status, with expiry windows relative to now.  Windows follow
+     * MembershipReport: not yet expired, expired, expiring between 7 and 30 days out, and expiring within 7 days.
+     *
+     * @param now now
+     * @param sevenDays now + 7 days
+     * @param thirtyDays now + 30 days
+     * @return one row per member type and status
+     */
+    @Query("SELECT m.memberType AS memberType, m.status AS status, COUNT(m) AS members, "
+            + "SUM(CASE WHEN m.expiration > :now THEN 1 ELSE 0 END) AS active, "
+            + "SUM(CASE WHEN m.expiration > :now THEN COALESCE(m.numOfFamily, 0) ELSE 0 END) AS activeFamily, "
+            + "SUM(CASE WHEN m.expiration < :now THEN 1 ELSE 0 END) AS expired, "
+            + "SUM(CASE WHEN m.expiration < :now THEN COALESCE(m.numOfFamily, 0) ELSE 0 END) AS expiredFamily, "
+            + "SUM(CASE WHEN m.expiration > :sevenDays AND m.expiration < :thirtyDays THEN 1 ELSE 0 END) "
+            + "AS willExpire30Days, "
+            + "SUM(CASE WHEN m.expiration > :sevenDays AND m.expiration < :thirtyDays "
+            + "THEN COALESCE(m.numOfFamily, 0) ELSE 0 END) AS willExpire30DaysFamily, "
+            + "SUM(CASE WHEN m.expiration > :now AND m.expiration < :sevenDays THEN 1 ELSE 0 END) "
+            + "AS willExpire7Days, "
+            + "SUM(CASE WHEN m.expiration > :now AND m.expiration < :sevenDays "
+            + "THEN COALESCE(m.numOfFamily, 0) ELSE 0 END) AS willExpire7DaysFamily "
+            + "FROM Member m WHERE m.tombstoned = false GROUP BY m.memberType, m.status")
+    List<MembershipReportRow> getMembershipReportRows(@Param("now") Date now,
+                                                      @Param("sevenDays") Date sevenDays,
+                                                      @Param("thirtyDays") Date thirtyDays);
+
+    /**
+     * Gets the MembershipReport fields of members whose expiration falls in any of the given ranges (inclusive).
+     *
+     * @param from start of the first range
+     * @param to end of the first range
+     * @param from7 start of the second range
+     * @param to7 end of the second range
+     * @param from30 start of the third range
+     * @param to30 end of the third range
+     * @return matching members
+     */
+    @Query("SELECT m.memberType AS memberType, m.status AS status, m.expiration AS expiration, "
+            + "m.numOfFamily AS numOfFamily FROM Member m WHERE m.tombstoned = false "
+            + "AND (m.expiration BETWEEN :from AND :to OR m.expiration BETWEEN :from7 AND :to7 "
+            + "OR m.expiration BETWEEN :from30 AND :to30)")
+    List<MembershipReportMember> findByExpirationInRanges(@Param("from") Date from, @Param("to") Date to,
+                                                         @Param("from7") Date from7, @Param("to7") Date to7,
+                                                         @Param("from30") Date from30, @Param("to30") Date to30);
+
+    /**
+     * Streams the export columns of all members, ordered by ID.  The rows are read through a cursor 500 at a time
+     * (requires useCursorFetch on the MySQL connection) and are not attached to the persistence context, so the
+     * stream must be consumed and closed inside a read-only transaction.
+     *
+     * @return export rows
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT m.id AS id, m.rosterId AS rosterId, m.firstName AS firstName, m.lastName AS lastName, "
+            + "m.email AS email, m.cellPhone AS cellPhone, m.memberType AS memberType, m.status AS status, "
+            + "m.eaaNumber AS eaaNumber, m.joined AS joined, m.expiration AS expiration, m.rfid AS rfid "
+            + "FROM Member m WHERE m.tombstoned = false ORDER BY m.id")
+    Stream<MemberExportRow> streamExportRows();
+
     /**
      * Saves a member.
      *
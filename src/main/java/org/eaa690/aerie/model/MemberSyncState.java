@@ -0,0 +1,62 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+/**
+ * MemberSyncState.  Projection of the Member columns needed to decide whether a roster record changed, and of the
+ * previous MembershipReport buckets of a member that did.
+ */
+public interface MemberSyncState extends MembershipReportMember {
+
+    /**
+     * Gets ID.
+     *
+     * @return ID
+     */
+    Long getId();
+
+    /**
+     * Gets roster management system ID.
+     *
+     * @return roster ID
+     */
+    Long getRosterId();
+
+    /**
+     * Gets created at.
+     *
+     * @return created at
+     */
+    Date getCreatedAt();
+
+    /**
+     * Gets content hash.
+     *
+     * @return content hash
+     */
+    String getContentHash();
+
+    /**
+     * Gets tombstone flag.
+     *
+     * @return true if tombstoned
+     */
+    boolean isTombstoned();
+
+}
@@ -16,6 +16,8 @@
 
 package org.eaa690.aerie.model;
 
+import java.util.Date;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -26,6 +28,16 @@ import lombok.Setter;
 @Setter
 public class MembershipReport {
 
+    /**
+     * Time the expiry windows are relative to.
+     */
+    private Date asOf;
+
+    /**
+     * Time the counts last changed.
+     */
+    private Date updatedAt;
+
     /**
      * Sum of all regular membership types.
      */
@@ -0,0 +1,106 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import io.github.bsmichael.rostermanagement.model.MemberType;
+import io.github.bsmichael.rostermanagement.model.Status;
+
+/**
+ * MembershipReportRow.  Member counts for one member type and status, split into expiry windows.  Family sums are
+ * "num of family" totals across the members counted.
+ */
+public interface MembershipReportRow {
+
+    /**
+     * Gets member type.
+     *
+     * @return member type
+     */
+    MemberType getMemberType();
+
+    /**
+     * Gets status.
+     *
+     * @return status
+     */
+    Status getStatus();
+
+    /**
+     * Gets number of members, regardless of expiration.
+     *
+     * @return count
+     */
+    long getMembers();
+
+    /**
+     * Gets number of members not yet expired.
+     *
+     * @return count
+     */
+    long getActive();
+
+    /**
+     * Gets sum of "num of family" of members not yet expired.
+     *
+     * @return sum
+     */
+    long getActiveFamily();
+
+    /**
+     * Gets number of expired members.
+     *
+     * @return count
+     */
+    long getExpired();
+
+    /**
+     * Gets sum of "num of family" of expired members.
+     *
+     * @return sum
+     */
+    long getExpiredFamily();
+
+    /**
+     * Gets number of members that will expire in 30 days.
+     *
+     * @return count
+     */
+    long getWillExpire30Days();
+
+    /**
+     * Gets sum of "num of family" of members that will expire in 30 days.
+     *
+     * @return sum
+     */
+    long getWillExpire30DaysFamily();
+
+    /**
+     * Gets number of members that will expire in 7 days.
+     *
+     * @return count
+     */
+    long getWillExpire7Days();
+
+    /**
+     * Gets sum of "num of family" of members that will expire in 7 days.
+     *
+     * @return sum
+     */
+    long getWillExpire7DaysFamily();
+
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.eaa690.aerie.constant.CommonConstants;
+
+/**
+ * MembershipReportSnapshot.  Persisted copy of the incrementally maintained MembershipReport, so that it survives
+ * a restart without being rebuilt.
+ */
+@Entity
+@Table(name = "MEMBERSHIP_REPORT_SNAPSHOT")
+@Getter
+@Setter
+public class MembershipReportSnapshot extends BaseEntity {
+
+    /**
+     * Default SerialVersionUID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Time the expiry windows are relative to.
+     */
+    private Date asOf;
+
+    /**
+     * MembershipReport as JSON.
+     */
+    @Column(length = CommonConstants.FOUR_THOUSAND)
+    private String report;
+
+    /**
+     * Initializes an instance of <code>MembershipReportSnapshot</code> with the default data.
+     */
+    public MembershipReportSnapshot() {
+        super.setCreatedAt(new Date());
+        super.setUpdatedAt(new Date());
+    }
+
+}
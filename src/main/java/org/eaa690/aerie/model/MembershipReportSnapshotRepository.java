@@ -0,0 +1,44 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import org.springframework.data.repository.Repository;
+
+import java.util.Optional;
+
+/**
+ * MembershipReportSnapshotRepository.
+ */
+public interface MembershipReportSnapshotRepository extends Repository<MembershipReportSnapshot, Long> {
+
+    /**
+     * Gets the most recently created snapshot.
+     *
+     * @return MembershipReportSnapshot
+     */
+    Optional<MembershipReportSnapshot> findTopByOrderByIdDesc();
+
+    /**
+     * Saves a snapshot.
+     *
+     * @param snapshot MembershipReportSnapshot
+     * @return MembershipReportSnapshot
+     */
+    MembershipReportSnapshot save(MembershipReportSnapshot snapshot);
+
+}
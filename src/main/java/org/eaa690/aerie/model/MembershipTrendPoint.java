@@ -0,0 +1,82 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.eaa690.aerie.constant.CommonConstants;
+
+/**
+ * MembershipTrendPoint.  The value of one MembershipReport counter for one day, week or month.
+ */
+@Entity
+@Table(name = "MEMBERSHIP_TREND_POINT",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_membership_trend_point",
+                        columnNames = {"granularity", "periodStart", "metric"})
+        })
+@Getter
+@Setter
+public class MembershipTrendPoint extends BaseEntity {
+
+    /**
+     * Default SerialVersionUID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Granularity.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = CommonConstants.TEN)
+    private TrendGranularity granularity;
+
+    /**
+     * Start of the day, week or month.
+     */
+    private Date periodStart;
+
+    /**
+     * MembershipReport counter name.
+     */
+    @Column(length = CommonConstants.ONE_HUNDRED)
+    private String metric;
+
+    /**
+     * Counter value.  For weeks and months, the average of the daily values.
+     */
+    private long total;
+
+    /**
+     * Initializes an instance of <code>MembershipTrendPoint</code> with the default data.
+     */
+    public MembershipTrendPoint() {
+        super.setCreatedAt(new Date());
+        super.setUpdatedAt(new Date());
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import org.springframework.data.repository.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * MembershipTrendPointRepository.
+ */
+public interface MembershipTrendPointRepository extends Repository<MembershipTrendPoint, Long> {
+
+    /**
+     * Gets the points of one period.
+     *
+     * @param granularity TrendGranularity
+     * @param periodStart start of the period
+     * @return MembershipTrendPoint
+     */
+    List<MembershipTrendPoint> findByGranularityAndPeriodStart(TrendGranularity granularity, Date periodStart);
+
+    /**
+     * Gets the points of the periods starting within a range (inclusive).
+     *
+     * @param granularity TrendGranularity
+     * @param from earliest period start
+     * @param to latest period start
+     * @return MembershipTrendPoint ordered by period start
+     */
+    List<MembershipTrendPoint> findByGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(
+            TrendGranularity granularity, Date from, Date to);
+
+    /**
+     * Saves a point.
+     *
+     * @param point MembershipTrendPoint
+     * @return MembershipTrendPoint
+     */
+    MembershipTrendPoint save(MembershipTrendPoint point);
+
+}
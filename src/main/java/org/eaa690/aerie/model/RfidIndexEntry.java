@@ -0,0 +1,57 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import io.github.bsmichael.rostermanagement.model.Status;
+import lombok.Getter;
+
+/**
+ * RfidIndexEntry.  What a badge check needs to know about the member holding an RFID.
+ */
+@Getter
+public class RfidIndexEntry {
+
+    /**
+     * Member ID.
+     */
+    private final long memberId;
+
+    /**
+     * Membership expiration, as days since 1970-01-01 in the server time zone, or Integer.MIN_VALUE when unknown.
+     */
+    private final int expirationEpochDay;
+
+    /**
+     * Status.
+     */
+    private final Status status;
+
+    /**
+     * Initializes an instance of <code>RfidIndexEntry</code>.
+     *
+     * @param id member ID
+     * @param epochDay expiration epoch day
+     * @param value status
+     */
+    public RfidIndexEntry(final long id, final int epochDay, final Status value) {
+        memberId = id;
+        expirationEpochDay = epochDay;
+        status = value;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * RfidIndexStats.  Size of the in-memory RFID index and the latency of lookups against it, in nanoseconds.
+ */
+@Getter
+@Setter
+public class RfidIndexStats {
+
+    /**
+     * Number of RFIDs indexed.
+     */
+    private int size;
+
+    /**
+     * Number of slots in the table.
+     */
+    private int capacity;
+
+    /**
+     * Time the index was last built or updated.
+     */
+    private Date builtAt;
+
+    /**
+     * Number of lookups.
+     */
+    private long lookups;
+
+    /**
+     * Number of lookups that found a member.
+     */
+    private long hits;
+
+    /**
+     * Median lookup latency.
+     */
+    private long latencyNanosP50;
+
+    /**
+     * 95th percentile lookup latency.
+     */
+    private long latencyNanosP95;
+
+    /**
+     * 99th percentile lookup latency.
+     */
+    private long latencyNanosP99;
+
+    /**
+     * Largest lookup latency.
+     */
+    private long latencyNanosMax;
+
+}
@@ -0,0 +1,116 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * RosterSyncResult.  Counts may be incremented concurrently by roster sync workers.
+ */
+@Getter
+@Setter
+public class RosterSyncResult {
+
+    /**
+     * Number of members added to the local roster.
+     */
+    private long added;
+
+    /**
+     * Number of members whose roster data changed.
+     */
+    private long changed;
+
+    /**
+     * Number of members whose roster data was unchanged.
+     */
+    private long unchanged;
+
+    /**
+     * Number of members tombstoned because they are no longer in the roster feed.
+     */
+    private long deleted;
+
+    /**
+     * Number of roster records that could not be processed.
+     */
+    private long failed;
+
+    /**
+     * Time spent fetching the roster, in milliseconds.
+     */
+    private long fetchMillis;
+
+    /**
+     * Time spent mapping and comparing roster records, summed across mapping workers, in milliseconds.
+     */
+    private long mapMillis;
+
+    /**
+     * Time spent writing members, in milliseconds.
+     */
+    private long persistMillis;
+
+    /**
+     * Increments added count.
+     */
+    public synchronized void incrementAdded() {
+        added++;
+    }
+
+    /**
+     * Increments changed count.
+     */
+    public synchronized void incrementChanged() {
+        changed++;
+    }
+
+    /**
+     * Increments unchanged count.
+     */
+    public synchronized void incrementUnchanged() {
+        unchanged++;
+    }
+
+    /**
+     * Increments failed count.
+     */
+    public synchronized void incrementFailed() {
+        failed++;
+    }
+
+    /**
+     * Gets the number of roster records processed.
+     *
+     * @return number of records
+     */
+    public long getRecords() {
+        return added + changed + unchanged + failed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "RosterSyncResult{added=" + added + ", changed=" + changed + ", unchanged=" + unchanged
+                + ", deleted=" + deleted + ", failed=" + failed + ", fetchMillis=" + fetchMillis
+                + ", mapMillis=" + mapMillis + ", persistMillis=" + persistMillis + "}";
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.eaa690.aerie.constant.CommonConstants;
+
+/**
+ * RosterSyncRun.  History of a single roster sync, with per-phase timings in milliseconds.
+ */
+@Entity
+@Table(name = "ROSTER_SYNC_RUN")
+@Getter
+@Setter
+public class RosterSyncRun extends BaseEntity {
+
+    /**
+     * Default SerialVersionUID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Started At.
+     */
+    private Date startedAt;
+
+    /**
+     * Finished At.
+     */
+    private Date finishedAt;
+
+    /**
+     * Status.
+     */
+    @Enumerated(EnumType.STRING)
+    private RosterSyncStatus status;
+
+    /**
+     * Time spent fetching the roster.
+     */
+    private long fetchMillis;
+
+    /**
+     * Time spent mapping and comparing roster records, summed across mapping workers.
+     */
+    private long mapMillis;
+
+    /**
+     * Time spent writing members.
+     */
+    private long persistMillis;
+
+    /**
+     * Number of roster records processed.
+     */
+    private long records;
+
+    /**
+     * Number of members added.
+     */
+    private long added;
+
+    /**
+     * Number of members changed.
+     */
+    private long changed;
+
+    /**
+     * Number of members unchanged.
+     */
+    private long unchanged;
+
+    /**
+     * Number of members tombstoned.
+     */
+    private long deleted;
+
+    /**
+     * Number of roster records that could not be processed.
+     */
+    private long failed;
+
+    /**
+     * Error message when the run failed.
+     */
+    @Column(length = CommonConstants.ONE_THOUSAND)
+    private String errorMessage;
+
+    /**
+     * Initializes an instance of <code>RosterSyncRun</code> with the default data.
+     */
+    public RosterSyncRun() {
+        super.setCreatedAt(new Date());
+        super.setUpdatedAt(new Date());
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * RosterSyncRunSummary.  Recent roster sync runs with phase duration percentiles, in milliseconds, across the
+ * runs that succeeded.
+ */
+@Getter
+@Setter
+public class RosterSyncRunSummary {
+
+    /**
+     * Recent runs, most recent first.
+     */
+    private List<RosterSyncRun> runs;
+
+    /**
+     * Median fetch duration.
+     */
+    private long fetchMillisP50;
+
+    /**
+     * 95th percentile fetch duration.
+     */
+    private long fetchMillisP95;
+
+    /**
+     * Median map duration.
+     */
+    private long mapMillisP50;
+
+    /**
+     * 95th percentile map duration.
+     */
+    private long mapMillisP95;
+
+    /**
+     * Median persist duration.
+     */
+    private long persistMillisP50;
+
+    /**
+     * 95th percentile persist duration.
+     */
+    private long persistMillisP95;
+
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer (Vyukov's bounded MPMC queue).  Each slot carries a sequence number that tells
+ * producers and consumers whose turn it is, so offer() and poll() claim slots with a single CAS and never block.
+ *
+ * @param <E> element type
+ */
+public class AccessEventBuffer<E> {
+
+    /**
+     * Elements.
+     */
+    private final AtomicReferenceArray<E> slots;
+
+    /**
+     * Sequence number per slot.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Capacity - 1.
+     */
+    private final int mask;
+
+    /**
+     * Next position to write.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to read.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Initializes a buffer.
+     *
+     * @param requestedCapacity requested capacity, rounded up to a power of two
+     */
+    public AccessEventBuffer(final int requestedCapacity) {
+        int capacity = 2;
+        while (capacity < requestedCapacity) {
+            capacity <<= 1;
+        }
+        slots = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds an element, unless the buffer is full.
+     *
+     * @param element element
+     * @return false when the buffer is full
+     */
+    public boolean offer(final E element) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.
+     *
+     * @return element, or null when the buffer is empty
+     */
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    final E element = slots.get(index);
+                    slots.set(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Gets the capacity.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Gets the approximate number of buffered elements.
+     *
+     * @return size
+     */
+    public int size() {
+        return (int) Math.max(0L, Math.min(tail.get() - head.get(), mask + 1L));
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.constant.PropertyKeyConstants;
+import org.eaa690.aerie.model.AccessEvent;
+import org.eaa690.aerie.model.AccessEventRepository;
+import org.eaa690.aerie.model.AccessEventResult;
+import org.eaa690.aerie.model.AccessEventStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records badge scans without slowing them down.  Scans are offered to a lock-free ring buffer on the request
+ * thread, and a background writer drains the buffer into ACCESS_EVENT once a second in batched inserts.  When the
+ * buffer is full, scans are dropped and counted rather than making the request wait.
+ */
+@Service
+public class AccessEventService {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessEventService.class);
+
+    /**
+     * Longest RFID stored; longer scans are truncated.
+     */
+    private static final int MAX_RFID_LENGTH = 255;
+
+    /**
+     * Delay between flushes, in milliseconds.
+     */
+    private static final long FLUSH_DELAY_MILLIS = CommonConstants.ONE_THOUSAND;
+
+    /**
+     * Writes buffered events in the background.
+     */
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("access-event-writer-%d")
+                    .setDaemon(true)
+                    .build());
+
+    /**
+     * Events accepted into the buffer.
+     */
+    private final LongAdder recorded = new LongAdder();
+
+    /**
+     * Events dropped because the buffer was full.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Events written.
+     */
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * Events lost to failed writes.
+     */
+    private final LongAdder writeFailures = new LongAdder();
+
+    /**
+     * Buffered events.
+     */
+    private AccessEventBuffer<AccessEvent> buffer;
+
+    /**
+     * AccessEventRepository.
+     */
+    @Autowired
+    private AccessEventRepository accessEventRepository;
+
+    /**
+     * PropertyService.
+     */
+    @Autowired
+    private PropertyService propertyService;
+
+    /**
+     * Sets AccessEventRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value AccessEventRepository
+     */
+    @Autowired
+    public void setAccessEventRepository(final AccessEventRepository value) {
+        accessEventRepository = value;
+    }
+
+    /**
+     * Sets PropertyService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value PropertyService
+     */
+    @Autowired
+    public void setPropertyService(final PropertyService value) {
+        propertyService = value;
+    }
+
+    /**
+     * Sizes the buffer from the ACCESS_EVENT_BUFFER_SIZE_KEY property and starts the writer.
+     */
+    @PostConstruct
+    public void init() {
+        buffer = new AccessEventBuffer<>(propertyService.getInt(PropertyKeyConstants.ACCESS_EVENT_BUFFER_SIZE_KEY,
+                CommonConstants.FOUR_THOUSAND));
+        executor.scheduleWithFixedDelay(this::flush, FLUSH_DELAY_MILLIS, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a badge scan.  Never blocks.
+     *
+     * @param rfid RFID scanned
+     * @param memberId ID of the member holding the RFID, or null when not found
+     * @param latencyNanos time taken to answer the scan
+     */
+    public void record(final String rfid, final Long memberId, final long latencyNanos) {
+        final AccessEvent event = new AccessEvent();
+        event.setRfid(StringUtils.left(rfid, MAX_RFID_LENGTH));
+        event.setMemberId(memberId);
+        event.setResult(AccessEventResult.NOT_FOUND);
+        if (memberId != null) {
+            event.setResult(AccessEventResult.FOUND);
+        }
+        event.setLatencyNanos(latencyNanos);
+        event.setScannedAt(new Date());
+        if (buffer.offer(event)) {
+            recorded.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes buffered events, one transaction per thousand.
+     */
+    public void flush() {
+        List<AccessEvent> batch;
+        do {
+            batch = new ArrayList<>();
+            AccessEvent event = buffer.poll();
+            while (event != null) {
+                batch.add(event);
+                if (batch.size() == CommonConstants.ONE_THOUSAND) {
+                    break;
+                }
+                event = buffer.poll();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                accessEventRepository.saveAll(batch);
+                written.add(batch.size());
+            } catch (RuntimeException e) {
+                writeFailures.add(batch.size());
+                LOGGER.error("Unable to write " + batch.size() + " access events", e);
+            }
+        } while (batch.size() == CommonConstants.ONE_THOUSAND);
+    }
+
+    /**
+     * Gets the buffer and writer counters.
+     *
+     * @return AccessEventStats
+     */
+    public AccessEventStats getStats() {
+        final AccessEventStats stats = new AccessEventStats();
+        stats.setCapacity(buffer.getCapacity());
+        stats.setBuffered(buffer.size());
+        stats.setRecorded(recorded.sum());
+        stats.setDropped(dropped.sum());
+        stats.setWritten(written.sum());
+        stats.setWriteFailures(writeFailures.sum());
+        return stats;
+    }
+
+    /**
+     * Stops the writer and writes whatever is still buffered.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Access event writer did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+}
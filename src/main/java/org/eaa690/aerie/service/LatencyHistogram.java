@@ -0,0 +1,148 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free log-linear histogram of durations in nanoseconds.  Each power of two is split into eight linear
+ * sub-buckets, so a reported percentile is within 12.5% of the recorded value.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of bits of linear resolution within each power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * Number of linear sub-buckets within each power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Highest bit index of a positive long.
+     */
+    private static final int MAX_BIT = 62;
+
+    /**
+     * Percent.
+     */
+    private static final double PERCENT = 100.0;
+
+    /**
+     * Counts per bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray((MAX_BIT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS);
+
+    /**
+     * Largest recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0L, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the largest recorded duration.
+     *
+     * @return nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets a percentile, as the upper bound of the bucket holding it.
+     *
+     * @param percentile percentile, between 0 and 100
+     * @return nanoseconds, or 0 when nothing has been recorded
+     */
+    public long getPercentile(final double percentile) {
+        final long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(percentile / PERCENT * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Gets the bucket of a value.
+     *
+     * @param value non-negative value
+     * @return bucket index
+     */
+    static int bucketOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Gets the largest value held by a bucket.
+     *
+     * @param bucket bucket index
+     * @return upper bound
+     */
+    static long upperBoundOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+}
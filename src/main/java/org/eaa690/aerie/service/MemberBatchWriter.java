@@ -0,0 +1,173 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.constant.PropertyKeyConstants;
+import org.eaa690.aerie.model.Member;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes members in chunks, one transaction per chunk, so that Hibernate can group the statements into JDBC
+ * batches.  The chunk size is read from the ROSTER_SYNC_BATCH_SIZE_KEY property and should match
+ * hibernate.jdbc.batch_size.
+ */
+@Service
+public class MemberBatchWriter {
+
+    /**
+     * EntityManager.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * TransactionTemplate.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * PropertyService.
+     */
+    @Autowired
+    private PropertyService propertyService;
+
+    /**
+     * Sets EntityManager.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value EntityManager
+     */
+    public void setEntityManager(final EntityManager value) {
+        entityManager = value;
+    }
+
+    /**
+     * Sets TransactionTemplate.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TransactionTemplate
+     */
+    @Autowired
+    public void setTransactionTemplate(final TransactionTemplate value) {
+        transactionTemplate = value;
+    }
+
+    /**
+     * Sets PropertyService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value PropertyService
+     */
+    @Autowired
+    public void setPropertyService(final PropertyService value) {
+        propertyService = value;
+    }
+
+    /**
+     * Inserts new members and updates existing (detached) members.
+     *
+     * @param members Members to be written
+     */
+    public void saveAll(final List<Member> members) {
+        writeInChunks(members, member -> {
+            if (member.getId() == null) {
+                entityManager.persist(member);
+            } else {
+                entityManager.unwrap(Session.class).update(member);
+            }
+        });
+    }
+
+    /**
+     * Tombstones members by ID.
+     *
+     * @param ids Member IDs to be tombstoned
+     */
+    public void tombstoneByIds(final List<Long> ids) {
+        final int batchSize = getBatchSize();
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            final List<Long> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> entityManager
+                    .createQuery("UPDATE Member m SET m.tombstoned = true, m.tombstonedAt = :now, "
+                            + "m.updatedAt = :now WHERE m.id IN :ids")
+                    .setParameter("now", new Date())
+                    .setParameter("ids", chunk)
+                    .executeUpdate());
+        }
+    }
+
+    /**
+     * Permanently deletes members tombstoned before the provided date.
+     *
+     * @param cutoff tombstone cutoff date
+     * @return number of members deleted
+     */
+    public int purgeTombstonedBefore(final Date cutoff) {
+        final Integer purged = transactionTemplate.execute(status -> entityManager
+                .createQuery("DELETE FROM Member m WHERE m.tombstoned = true AND m.tombstonedAt < :cutoff")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate());
+        return Optional.ofNullable(purged).orElse(0);
+    }
+
+    /**
+     * Gets the configured batch size.
+     *
+     * @return batch size
+     */
+    public int getBatchSize() {
+        return Math.max(1, propertyService.getInt(PropertyKeyConstants.ROSTER_SYNC_BATCH_SIZE_KEY,
+                CommonConstants.FIFTY));
+    }
+
+    /**
+     * Applies the provided operation to each member, committing once per chunk.  Each member's updatedAt is stamped
+     * inside its chunk's transaction, so the stamp trails the commit by no more than one chunk's flush.
+     *
+     * @param members Members
+     * @param operation write operation
+     */
+    private void writeInChunks(final List<Member> members, final Consumer<Member> operation) {
+        final int batchSize = getBatchSize();
+        for (int start = 0; start < members.size(); start += batchSize) {
+            final List<Member> chunk = members.subList(start, Math.min(start + batchSize, members.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                final Date now = new Date();
+                chunk.forEach(member -> {
+                    member.setUpdatedAt(now);
+                    operation.accept(member);
+                });
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.constant.PropertyKeyConstants;
+import org.eaa690.aerie.exception.InvalidPayloadException;
+import org.eaa690.aerie.model.MemberChange;
+import org.eaa690.aerie.model.MemberChangeFeed;
+import org.eaa690.aerie.model.MemberChangeRow;
+import org.eaa690.aerie.model.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves members created, updated or tombstoned since a watermark, so that mirrors of member state can sync in
+ * O(changes) instead of re-reading the roster.  The watermark is the (updated at, ID) of the last change returned,
+ * which keeps the feed stable when several members share an updated at.
+ */
+@Service
+public class MemberChangeFeedService {
+
+    /**
+     * Watermark prefix.
+     */
+    private static final String WATERMARK_PREFIX = "w:";
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * PropertyService.
+     */
+    @Autowired
+    private PropertyService propertyService;
+
+    /**
+     * Sets MemberRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberRepository
+     */
+    @Autowired
+    public void setMemberRepository(final MemberRepository value) {
+        memberRepository = value;
+    }
+
+    /**
+     * Sets PropertyService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value PropertyService
+     */
+    @Autowired
+    public void setPropertyService(final PropertyService value) {
+        propertyService = value;
+    }
+
+    /**
+     * Gets the changes after the provided watermark.  Changes from the last ten seconds are held back, so that a
+     * roster sync chunk still being committed cannot be skipped by a client whose watermark has moved past it.
+     * Members are stamped inside the transaction that writes them, so the hold-back only has to cover the flush and
+     * commit of a single chunk.
+     *
+     * @param since watermark from the previous response, or null to start from the beginning
+     * @param limit requested number of changes, or null for the MEMBER_PAGE_SIZE_KEY default; at most 1000
+     * @return MemberChangeFeed
+     * @throws InvalidPayloadException when the watermark is not valid
+     */
+    public MemberChangeFeed getChanges(final String since, final Integer limit) throws InvalidPayloadException {
+        final Instant now = Instant.now();
+        final MemberChangeFeed feed = new MemberChangeFeed();
+        Date sinceUpdatedAt = new Date(0);
+        long sinceId = 0L;
+        if (since != null && !since.isEmpty()) {
+            final long[] watermark = decodeWatermark(since);
+            sinceUpdatedAt = new Date(watermark[0]);
+            sinceId = watermark[1];
+            final int retentionDays = propertyService.getInt(
+                    PropertyKeyConstants.MEMBER_TOMBSTONE_RETENTION_DAYS_KEY, CommonConstants.NINETY);
+            feed.setResyncRequired(sinceUpdatedAt.toInstant().isBefore(now.minus(retentionDays, ChronoUnit.DAYS)));
+        }
+        int pageSize = propertyService.getInt(PropertyKeyConstants.MEMBER_PAGE_SIZE_KEY, CommonConstants.ONE_HUNDRED);
+        if (limit != null) {
+            pageSize = limit;
+        }
+        pageSize = Math.max(1, Math.min(pageSize, CommonConstants.ONE_THOUSAND));
+        final List<MemberChangeRow> rows = memberRepository.findChangesAfter(sinceUpdatedAt, sinceId,
+                Date.from(now.minusSeconds(CommonConstants.TEN)), PageRequest.of(0, pageSize + 1));
+
+        final List<MemberChange> changes = new ArrayList<>();
+        for (MemberChangeRow row : rows.subList(0, Math.min(pageSize, rows.size()))) {
+            changes.add(toChange(row));
+            sinceUpdatedAt = row.getUpdatedAt();
+            sinceId = row.getId();
+        }
+        feed.setChanges(changes);
+        feed.setHasMore(rows.size() > pageSize);
+        feed.setWatermark(encodeWatermark(sinceUpdatedAt, sinceId));
+        return feed;
+    }
+
+    /**
+     * Converts a changed member row into a MemberChange.
+     *
+     * @param row MemberChangeRow
+     * @return MemberChange
+     */
+    private static MemberChange toChange(final MemberChangeRow row) {
+        final MemberChange change = new MemberChange();
+        change.setId(row.getId());
+        change.setRosterId(row.getRosterId());
+        change.setUpdatedAt(row.getUpdatedAt());
+        if (row.isTombstoned()) {
+            change.setDeleted(Boolean.TRUE);
+        } else {
+            change.setName(row.getFirstName() + " " + row.getLastName());
+            change.setRfid(row.getRfid());
+            change.setExpirationDate(row.getExpiration());
+        }
+        return change;
+    }
+
+    /**
+     * Encodes an (updated at, ID) position as an opaque watermark.
+     *
+     * @param updatedAt updated at of the last change
+     * @param id ID of the last change
+     * @return watermark
+     */
+    private static String encodeWatermark(final Date updatedAt, final long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((WATERMARK_PREFIX + updatedAt.getTime() + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a watermark into its updated at (epoch milliseconds) and ID.
+     *
+     * @param watermark watermark
+     * @return updated at and ID
+     * @throws InvalidPayloadException when the watermark is not valid
+     */
+    private static long[] decodeWatermark(final String watermark) throws InvalidPayloadException {
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            final int separator = value.lastIndexOf(':');
+            if (value.startsWith(WATERMARK_PREFIX) && separator > WATERMARK_PREFIX.length()) {
+                return new long[] {
+                        Long.parseLong(value.substring(WATERMARK_PREFIX.length(), separator)),
+                        Long.parseLong(value.substring(separator + 1))
+                };
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPayloadException("Invalid watermark " + watermark, e);
+        }
+        throw new InvalidPayloadException("Invalid watermark " + watermark);
+    }
+
+}
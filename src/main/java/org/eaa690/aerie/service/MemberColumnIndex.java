@@ -0,0 +1,384 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eaa690.aerie.exception.InvalidPayloadException;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberIndexQueryResult;
+import org.eaa690.aerie.model.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Column-oriented, in-memory index of the (non-tombstoned) members for ad-hoc counts.  Each dimension column is
+ * dictionary encoded into an int[] of codes plus one bitmap per distinct value, and each boolean flag is a
+ * bitmap.  Filters are bitmap intersections; group-by counts walk the matching rows' codes.  The index is rebuilt
+ * after each roster sync and swapped in whole, so queries never see a partial build.
+ */
+@Service
+public class MemberColumnIndex {
+
+    /**
+     * Value used for missing dimension values.
+     */
+    private static final String NONE = "(none)";
+
+    /**
+     * Four digit year.
+     */
+    private static final Pattern YEAR = Pattern.compile("\\d{4}");
+
+    /**
+     * Dimension columns by name.
+     */
+    private static final Map<String, Function<Member, Object>> DIMENSIONS = new LinkedHashMap<>();
+
+    /**
+     * Flag columns by name.
+     */
+    private static final Map<String, Predicate<Member>> FLAGS = new LinkedHashMap<>();
+
+    static {
+        DIMENSIONS.put("memberType", Member::getMemberType);
+        DIMENSIONS.put("status", Member::getStatus);
+        DIMENSIONS.put("gender", Member::getGender);
+        DIMENSIONS.put("webAdminAccess", Member::getWebAdminAccess);
+        DIMENSIONS.put("city", Member::getCity);
+        DIMENSIONS.put("state", Member::getState);
+        DIMENSIONS.put("zipCode", Member::getZipCode);
+        DIMENSIONS.put("country", Member::getCountry);
+        DIMENSIONS.put("joinYear", member -> year(member.getJoined()));
+        FLAGS.put("aircraftOwned", member -> StringUtils.isNotBlank(member.getAircraftOwned()));
+        FLAGS.put("aircraftProject", member -> StringUtils.isNotBlank(member.getAircraftProject()));
+        FLAGS.put("aircraftBuilt", member -> StringUtils.isNotBlank(member.getAircraftBuilt()));
+        FLAGS.put("imcClub", Member::isImcClub);
+        FLAGS.put("vmcClub", Member::isVmcClub);
+        FLAGS.put("yePilot", Member::isYePilot);
+        FLAGS.put("yeVolunteer", Member::isYeVolunteer);
+        FLAGS.put("eaglePilot", Member::isEaglePilot);
+        FLAGS.put("eagleVolunteer", Member::isEagleVolunteer);
+        FLAGS.put("emailEnabled", Member::isEmailEnabled);
+        FLAGS.put("smsEnabled", Member::isSmsEnabled);
+        FLAGS.put("slackEnabled", Member::isSlackEnabled);
+    }
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * Current index.
+     */
+    private volatile Columns columns = new Columns(Collections.emptyList());
+
+    /**
+     * Sets MemberRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberRepository
+     */
+    @Autowired
+    public void setMemberRepository(final MemberRepository value) {
+        memberRepository = value;
+    }
+
+    /**
+     * Builds the index at startup.
+     */
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the index from the database.
+     */
+    public void refresh() {
+        columns = new Columns(memberRepository.findAll().orElse(Collections.emptyList()));
+    }
+
+    /**
+     * Counts members matching all filters, optionally grouped by a column.
+     *
+     * Filters are "column:value" or "column:value1,value2" (any of the values).  Flag columns take true or false.
+     * Dimension columns are memberType, status, gender, webAdminAccess, city, state, zipCode, country and joinYear;
+     * flag columns are aircraftOwned, aircraftProject, aircraftBuilt (each true when the field is not blank),
+     * imcClub, vmcClub, yePilot, yeVolunteer, eaglePilot, eagleVolunteer, emailEnabled, smsEnabled and
+     * slackEnabled.
+     *
+     * @param filters filters, may be null
+     * @param groupBy column to group by, may be null
+     * @return MemberIndexQueryResult
+     * @throws InvalidPayloadException when a filter or the group-by column is not valid
+     */
+    public MemberIndexQueryResult query(final List<String> filters, final String groupBy)
+            throws InvalidPayloadException {
+        final Columns current = columns;
+        final BitSet rows = new BitSet(current.size);
+        rows.set(0, current.size);
+        for (final String filter : Optional.ofNullable(filters).orElse(Collections.emptyList())) {
+            final String column = StringUtils.substringBefore(filter, ":");
+            final String[] values = StringUtils.split(StringUtils.substringAfter(filter, ":"), ',');
+            rows.and(current.match(column, values));
+        }
+        final MemberIndexQueryResult result = new MemberIndexQueryResult();
+        result.setCount(rows.cardinality());
+        result.setGroups(Collections.emptyMap());
+        if (StringUtils.isNotBlank(groupBy)) {
+            result.setGroups(current.group(groupBy, rows));
+        }
+        result.setIndexedAt(current.builtAt);
+        return result;
+    }
+
+    /**
+     * Gets the year of a date string.
+     *
+     * @param date date string
+     * @return first four digit number in the string, or null
+     */
+    private static String year(final String date) {
+        if (date == null) {
+            return null;
+        }
+        final Matcher matcher = YEAR.matcher(date);
+        if (matcher.find()) {
+            return matcher.group();
+        }
+        return null;
+    }
+
+    /**
+     * Immutable column data for one build of the index.
+     */
+    private static final class Columns {
+
+        /**
+         * Number of rows.
+         */
+        private final int size;
+
+        /**
+         * Time the index was built.
+         */
+        private final Date builtAt = new Date();
+
+        /**
+         * Dimension columns by name.
+         */
+        private final Map<String, Dimension> dimensions = new HashMap<>();
+
+        /**
+         * Flag bitmaps by name.
+         */
+        private final Map<String, BitSet> flags = new HashMap<>();
+
+        /**
+         * Builds the columns.
+         *
+         * @param members members, one row each
+         */
+        Columns(final List<Member> members) {
+            size = members.size();
+            DIMENSIONS.forEach((name, getter) -> dimensions.put(name, new Dimension(members, getter)));
+            FLAGS.forEach((name, flag) -> {
+                final BitSet bitmap = new BitSet(size);
+                for (int row = 0; row < size; row++) {
+                    bitmap.set(row, flag.test(members.get(row)));
+                }
+                flags.put(name, bitmap);
+            });
+        }
+
+        /**
+         * Gets the rows where a column has any of the given values.
+         *
+         * @param column column name
+         * @param values values
+         * @return matching rows
+         * @throws InvalidPayloadException when the column or a flag value is not valid
+         */
+        BitSet match(final String column, final String[] values) throws InvalidPayloadException {
+            final BitSet matched = new BitSet(size);
+            if (flags.containsKey(column)) {
+                for (final String value : values) {
+                    matched.or(flagRows(column, value));
+                }
+                return matched;
+            }
+            final Dimension dimension = dimension(column);
+            for (final String value : values) {
+                dimension.rows(value).ifPresent(matched::or);
+            }
+            return matched;
+        }
+
+        /**
+         * Counts rows per value of a column.
+         *
+         * @param column column name
+         * @param rows rows to be counted
+         * @return count per value, largest first
+         * @throws InvalidPayloadException when the column is not valid
+         */
+        Map<String, Long> group(final String column, final BitSet rows) throws InvalidPayloadException {
+            final Map<String, Long> groups = new LinkedHashMap<>();
+            if (flags.containsKey(column)) {
+                final BitSet flagged = (BitSet) rows.clone();
+                flagged.and(flags.get(column));
+                groups.put(Boolean.TRUE.toString(), (long) flagged.cardinality());
+                groups.put(Boolean.FALSE.toString(), (long) rows.cardinality() - flagged.cardinality());
+                return groups;
+            }
+            final Dimension dimension = dimension(column);
+            final long[] counts = new long[dimension.dictionary.length];
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                counts[dimension.codes[row]]++;
+            }
+            final List<Integer> codes = new ArrayList<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    codes.add(code);
+                }
+            }
+            codes.sort((a, b) -> Long.compare(counts[b], counts[a]));
+            codes.forEach(code -> groups.put(dimension.dictionary[code], counts[code]));
+            return groups;
+        }
+
+        /**
+         * Gets the rows where a flag is true or false.
+         *
+         * @param column flag name
+         * @param value true or false
+         * @return matching rows
+         * @throws InvalidPayloadException when the value is not true or false
+         */
+        private BitSet flagRows(final String column, final String value) throws InvalidPayloadException {
+            final BitSet flagged = (BitSet) flags.get(column).clone();
+            if (Boolean.TRUE.toString().equalsIgnoreCase(value)) {
+                return flagged;
+            }
+            if (Boolean.FALSE.toString().equalsIgnoreCase(value)) {
+                flagged.flip(0, size);
+                return flagged;
+            }
+            throw new InvalidPayloadException(column + " must be true or false");
+        }
+
+        /**
+         * Gets a dimension column.
+         *
+         * @param column column name
+         * @return Dimension
+         * @throws InvalidPayloadException when there is no such column
+         */
+        private Dimension dimension(final String column) throws InvalidPayloadException {
+            final Dimension dimension = dimensions.get(column);
+            if (dimension == null) {
+                throw new InvalidPayloadException("Unknown column: " + column);
+            }
+            return dimension;
+        }
+
+    }
+
+    /**
+     * Dictionary-encoded column.
+     */
+    private static final class Dimension {
+
+        /**
+         * Distinct values, indexed by code.
+         */
+        private final String[] dictionary;
+
+        /**
+         * Code of each row's value.
+         */
+        private final int[] codes;
+
+        /**
+         * Rows having each code.
+         */
+        private final BitSet[] bitmaps;
+
+        /**
+         * Codes by value.
+         */
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+
+        /**
+         * Encodes a column.
+         *
+         * @param members members, one row each
+         * @param getter column value
+         */
+        Dimension(final List<Member> members, final Function<Member, Object> getter) {
+            final List<BitSet> rowsByCode = new ArrayList<>();
+            codes = new int[members.size()];
+            for (int row = 0; row < codes.length; row++) {
+                final String value = Optional
+                        .ofNullable(getter.apply(members.get(row)))
+                        .map(Object::toString)
+                        .filter(StringUtils::isNotBlank)
+                        .orElse(NONE);
+                final int code = codesByValue.computeIfAbsent(value, v -> {
+                    rowsByCode.add(new BitSet(codes.length));
+                    return rowsByCode.size() - 1;
+                });
+                codes[row] = code;
+                rowsByCode.get(code).set(row);
+            }
+            dictionary = new String[codesByValue.size()];
+            codesByValue.forEach((value, code) -> dictionary[code] = value);
+            bitmaps = rowsByCode.toArray(new BitSet[0]);
+        }
+
+        /**
+         * Gets the rows having a value.
+         *
+         * @param value value
+         * @return rows, or empty when no row has the value
+         */
+        Optional<BitSet> rows(final String value) {
+            return Optional.ofNullable(codesByValue.get(value)).map(code -> bitmaps[code]);
+        }
+
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.eaa690.aerie.model.MemberData;
+import org.eaa690.aerie.model.MemberDataRow;
+import org.eaa690.aerie.model.MemberExportRow;
+import org.eaa690.aerie.model.MemberRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes the roster as CSV or JSON straight from a database cursor, one row at a time, so that an export never
+ * holds the whole roster in memory.
+ */
+@Service
+public class MemberExportService {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemberExportService.class);
+
+    /**
+     * CSV header.
+     */
+    private static final String HEADER = "id,rosterId,firstName,lastName,email,cellPhone,memberType,status,"
+            + "eaaNumber,joined,expiration,rfid";
+
+    /**
+     * Characters that make a spreadsheet treat a cell as a formula.
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * Values starting with + or - that are only numbers or phone numbers, which a spreadsheet cannot turn into a
+     * function call and which are left as they are.
+     */
+    private static final Pattern NUMERIC_VALUE = Pattern.compile("[+-][0-9 ().+/-]*");
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * Read-only TransactionTemplate.
+     */
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    /**
+     * ObjectMapper.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Sets MemberRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberRepository
+     */
+    @Autowired
+    public void setMemberRepository(final MemberRepository value) {
+        memberRepository = value;
+    }
+
+    /**
+     * Sets TransactionTemplate.  The export runs in a read-only copy of it.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TransactionTemplate
+     */
+    @Autowired
+    public void setTransactionTemplate(final TransactionTemplate value) {
+        readOnlyTransactionTemplate = new TransactionTemplate(value.getTransactionManager(), value);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Sets ObjectMapper.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value ObjectMapper
+     */
+    @Autowired
+    public void setObjectMapper(final ObjectMapper value) {
+        objectMapper = value;
+    }
+
+    /**
+     * Writes the MemberData of all non-tombstoned members as a JSON array, one row at a time.  The output stream is
+     * flushed but not closed.  Rows are written without a flush each, so the response is sent in buffer-sized chunks
+     * rather than one chunk per member.
+     *
+     * @param outputStream output stream
+     */
+    public void exportMemberDataJson(final OutputStream outputStream) {
+        final ObjectWriter writer = objectMapper
+                .writerFor(MemberData.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<MemberDataRow> stream = memberRepository.streamMemberData();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                for (final MemberDataRow row : (Iterable<MemberDataRow>) stream::iterator) {
+                    writer.writeValue(generator, row.toMemberData());
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Writes all non-tombstoned members as CSV.  The output stream is flushed but not closed.
+     *
+     * @param outputStream output stream
+     */
+    public void exportCsv(final OutputStream outputStream) {
+        final long start = System.nanoTime();
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        final Long rows = readOnlyTransactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<MemberExportRow> stream = memberRepository.streamExportRows()) {
+                writer.write(HEADER);
+                writer.write("\r\n");
+                for (final MemberExportRow row : (Iterable<MemberExportRow>) stream::iterator) {
+                    writeRow(writer, row);
+                    count++;
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        LOGGER.info("Exported {} members in {} ms", rows,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Writes one CSV row.
+     *
+     * @param writer Writer
+     * @param row MemberExportRow
+     * @throws IOException when the row cannot be written
+     */
+    private static void writeRow(final Writer writer, final MemberExportRow row) throws IOException {
+        writer.write(escape(Objects.toString(row.getId(), "")));
+        writer.write(',');
+        writer.write(escape(Objects.toString(row.getRosterId(), "")));
+        writer.write(',');
+        writer.write(escape(row.getFirstName()));
+        writer.write(',');
+        writer.write(escape(row.getLastName()));
+        writer.write(',');
+        writer.write(escape(row.getEmail()));
+        writer.write(',');
+        writer.write(escape(row.getCellPhone()));
+        writer.write(',');
+        writer.write(escape(Objects.toString(row.getMemberType(), "")));
+        writer.write(',');
+        writer.write(escape(Objects.toString(row.getStatus(), "")));
+        writer.write(',');
+        writer.write(escape(row.getEaaNumber()));
+        writer.write(',');
+        writer.write(escape(row.getJoined()));
+        writer.write(',');
+        writer.write(formatDate(row.getExpiration()));
+        writer.write(',');
+        writer.write(escape(row.getRfid()));
+        writer.write("\r\n");
+    }
+
+    /**
+     * Formats a date as yyyy-MM-dd in the server time zone.
+     *
+     * @param date Date, possibly null
+     * @return formatted date, or an empty string
+     */
+    private static String formatDate(final Date date) {
+        if (date == null) {
+            return "";
+        }
+        return DateTimeFormatter.ISO_LOCAL_DATE
+                .format(Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * Escapes a CSV field (RFC 4180), and prefixes values that a spreadsheet would evaluate as a formula with a
+     * single quote.  Values such as "+1 770-555-1212" or "-5" are not prefixed.
+     *
+     * @param value field value, possibly null
+     * @return escaped field
+     */
+    static String escape(final String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String field = value;
+        if (FORMULA_PREFIXES.indexOf(field.charAt(0)) >= 0 && !NUMERIC_VALUE.matcher(field).matches()) {
+            field = "'" + field;
+        }
+        if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0
+                || field.indexOf('\r') >= 0) {
+            return '"' + field.replace("\"", "\"\"") + '"';
+        }
+        return field;
+    }
+
+}
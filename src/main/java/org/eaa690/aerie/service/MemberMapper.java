@@ -0,0 +1,67 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import io.github.bsmichael.rostermanagement.model.Person;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import org.eaa690.aerie.model.Member;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps between roster management system Person records and Member entities.  Class maps are registered once on
+ * construction and the resulting MapperFacade is thread-safe, so a single instance is shared by all callers.
+ */
+@Component
+public class MemberMapper {
+
+    /**
+     * MapperFacade.
+     */
+    private final MapperFacade mapperFacade;
+
+    /**
+     * Initializes an instance of <code>MemberMapper</code>, registering the Person to Member class map.
+     */
+    public MemberMapper() {
+        final MapperFactory mapperFactory = new DefaultMapperFactory.Builder().build();
+        mapperFactory.classMap(Person.class, Member.class).byDefault().register();
+        mapperFacade = mapperFactory.getMapperFacade();
+    }
+
+    /**
+     * Maps a Person to a new Member.
+     *
+     * @param person Person
+     * @return Member
+     */
+    public Member toMember(final Person person) {
+        return mapperFacade.map(person, Member.class);
+    }
+
+    /**
+     * Maps a Member to a new Person.
+     *
+     * @param member Member
+     * @return Person
+     */
+    public Person toPerson(final Member member) {
+        return mapperFacade.map(member, Person.class);
+    }
+
+}
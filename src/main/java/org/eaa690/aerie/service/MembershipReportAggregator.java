@@ -0,0 +1,336 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import io.github.bsmichael.rostermanagement.model.MemberType;
+import io.github.bsmichael.rostermanagement.model.Status;
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.model.MembershipReportMember;
+import org.eaa690.aerie.model.MembershipReportRow;
+
+/**
+ * Builds a MembershipReport in a single pass, either over members or over the pre-aggregated rows of
+ * MemberRepository.getMembershipReportRows.  Counts are kept in primitive arrays indexed by MemberType ordinal and
+ * expiry window, and expirations are compared as epoch milliseconds.  Members can also be removed again and the
+ * windows rolled forward, so that a report can be maintained incrementally.
+ *
+ * Windows match the original report: a member is active when their expiration is after now, expired when it is
+ * before now, will expire in 7 days when it is before now + 7 days, and will expire in 30 days when it is
+ * between now + 7 days and now + 30 days.  Only ACTIVE status members are counted in windows.  Not thread-safe.
+ */
+public class MembershipReportAggregator {
+
+    /**
+     * Active (not yet expired) window.
+     */
+    private static final int ACTIVE = 0;
+
+    /**
+     * Expired window.
+     */
+    private static final int EXPIRED = 1;
+
+    /**
+     * Will expire in 30 days window.
+     */
+    private static final int WILL_EXPIRE_30_DAYS = 2;
+
+    /**
+     * Will expire in 7 days window.
+     */
+    private static final int WILL_EXPIRE_7_DAYS = 3;
+
+    /**
+     * Number of windows.
+     */
+    private static final int WINDOWS = 4;
+
+    /**
+     * Now, in epoch milliseconds.
+     */
+    private long now;
+
+    /**
+     * Now + 7 days, in epoch milliseconds.
+     */
+    private long sevenDays;
+
+    /**
+     * Now + 30 days, in epoch milliseconds.
+     */
+    private long thirtyDays;
+
+    /**
+     * Members by MemberType ordinal, regardless of status or expiration.
+     */
+    private final long[] members = new long[MemberType.values().length];
+
+    /**
+     * Memberships by MemberType ordinal and window.
+     */
+    private final long[][] memberships = new long[MemberType.values().length][WINDOWS];
+
+    /**
+     * Sum of "num of family" of family memberships by window.
+     */
+    private final long[] familyMembers = new long[WINDOWS];
+
+    /**
+     * Initializes an instance of <code>MembershipReportAggregator</code>.
+     *
+     * @param asOf time the report is calculated for
+     */
+    public MembershipReportAggregator(final Date asOf) {
+        setAsOf(asOf);
+    }
+
+    /**
+     * Initializes an instance of <code>MembershipReportAggregator</code> with the counts of a previously built
+     * report, as of the time of that report.
+     *
+     * @param report MembershipReport
+     */
+    public MembershipReportAggregator(final MembershipReport report) {
+        this(report.getAsOf());
+        seed(MemberType.Regular, report.getRegularMemberCount(), report.getRegularMemberExpiredCount(),
+                report.getRegularMemberWillExpire30DaysCount(), report.getRegularMemberWillExpire7DaysCount());
+        seed(MemberType.Family, report.getFamilyMembershipCount(), report.getFamilyMembershipExpiredCount(),
+                report.getFamilyMembershipWillExpire30DaysCount(), report.getFamilyMembershipWillExpire7DaysCount());
+        seed(MemberType.Student, report.getStudentMemberCount(), report.getStudentMemberExpiredCount(),
+                report.getStudentMemberWillExpire30DaysCount(), report.getStudentMemberWillExpire7DaysCount());
+        familyMembers[ACTIVE] = report.getFamilyMemberCount();
+        familyMembers[EXPIRED] = report.getFamilyMemberExpiredCount();
+        familyMembers[WILL_EXPIRE_30_DAYS] = report.getFamilyMemberWillExpire30DaysCount();
+        familyMembers[WILL_EXPIRE_7_DAYS] = report.getFamilyMemberWillExpire7DaysCount();
+        members[MemberType.Lifetime.ordinal()] = report.getLifetimeMemberCount();
+        members[MemberType.Honorary.ordinal()] = report.getHonoraryMemberCount();
+        members[MemberType.Prospect.ordinal()] = report.getProspectMemberCount();
+        members[MemberType.NonMember.ordinal()] = report.getNonMemberCount();
+    }
+
+    /**
+     * Gets the time the report is calculated for.
+     *
+     * @return as of
+     */
+    public Date getAsOf() {
+        return new Date(now);
+    }
+
+    /**
+     * Adds a member to the report.
+     *
+     * @param member MembershipReportMember
+     */
+    public void add(final MembershipReportMember member) {
+        count(member, 1);
+    }
+
+    /**
+     * Removes a previously added member from the report.
+     *
+     * @param member MembershipReportMember, as it was when added
+     */
+    public void remove(final MembershipReportMember member) {
+        count(member, -1);
+    }
+
+    /**
+     * Moves the report forward in time.  Only members whose expiration lies between the old and the new value of
+     * one of the window boundaries (now, now + 7 days, now + 30 days) can change window, so only those members
+     * need to be provided.  Including other members is harmless.
+     *
+     * @param asOf new time the report is calculated for
+     * @param crossing members whose expiration lies between the old and new value of a window boundary
+     */
+    public void rollTo(final Date asOf, final List<? extends MembershipReportMember> crossing) {
+        crossing.forEach(this::remove);
+        setAsOf(asOf);
+        crossing.forEach(this::add);
+    }
+
+    /**
+     * Adds member counts already split into expiry windows.
+     *
+     * @param row MembershipReportRow
+     */
+    public void add(final MembershipReportRow row) {
+        if (row.getMemberType() == null) {
+            return;
+        }
+        final int type = row.getMemberType().ordinal();
+        members[type] += row.getMembers();
+        if (row.getStatus() != Status.ACTIVE) {
+            return;
+        }
+        final boolean family = row.getMemberType() == MemberType.Family;
+        count(type, ACTIVE, row.getActive(), family, row.getActiveFamily());
+        count(type, EXPIRED, row.getExpired(), family, row.getExpiredFamily());
+        count(type, WILL_EXPIRE_30_DAYS, row.getWillExpire30Days(), family, row.getWillExpire30DaysFamily());
+        count(type, WILL_EXPIRE_7_DAYS, row.getWillExpire7Days(), family, row.getWillExpire7DaysFamily());
+    }
+
+    /**
+     * Builds the MembershipReport from the members added so far.
+     *
+     * @return MembershipReport
+     */
+    public MembershipReport toReport() {
+        final MembershipReport report = new MembershipReport();
+        report.setAsOf(getAsOf());
+        report.setRegularMemberCount(membership(MemberType.Regular, ACTIVE));
+        report.setRegularMemberExpiredCount(membership(MemberType.Regular, EXPIRED));
+        report.setRegularMemberWillExpire30DaysCount(membership(MemberType.Regular, WILL_EXPIRE_30_DAYS));
+        report.setRegularMemberWillExpire7DaysCount(membership(MemberType.Regular, WILL_EXPIRE_7_DAYS));
+        report.setFamilyMembershipCount(membership(MemberType.Family, ACTIVE));
+        report.setFamilyMembershipExpiredCount(membership(MemberType.Family, EXPIRED));
+        report.setFamilyMembershipWillExpire30DaysCount(membership(MemberType.Family, WILL_EXPIRE_30_DAYS));
+        report.setFamilyMembershipWillExpire7DaysCount(membership(MemberType.Family, WILL_EXPIRE_7_DAYS));
+        report.setFamilyMemberCount(familyMembers[ACTIVE]);
+        report.setFamilyMemberExpiredCount(familyMembers[EXPIRED]);
+        report.setFamilyMemberWillExpire30DaysCount(familyMembers[WILL_EXPIRE_30_DAYS]);
+        report.setFamilyMemberWillExpire7DaysCount(familyMembers[WILL_EXPIRE_7_DAYS]);
+        report.setStudentMemberCount(membership(MemberType.Student, ACTIVE));
+        report.setStudentMemberExpiredCount(membership(MemberType.Student, EXPIRED));
+        report.setStudentMemberWillExpire30DaysCount(membership(MemberType.Student, WILL_EXPIRE_30_DAYS));
+        report.setStudentMemberWillExpire7DaysCount(membership(MemberType.Student, WILL_EXPIRE_7_DAYS));
+        report.setLifetimeMemberCount(members[MemberType.Lifetime.ordinal()]);
+        report.setHonoraryMemberCount(members[MemberType.Honorary.ordinal()]);
+        report.setProspectMemberCount(members[MemberType.Prospect.ordinal()]);
+        report.setNonMemberCount(members[MemberType.NonMember.ordinal()]);
+        return report;
+    }
+
+    /**
+     * Sets the time the windows are relative to.
+     *
+     * @param asOf as of
+     */
+    private void setAsOf(final Date asOf) {
+        now = asOf.getTime();
+        sevenDays = plusDays(now, CommonConstants.SEVEN);
+        thirtyDays = plusDays(now, CommonConstants.THIRTY);
+    }
+
+    /**
+     * Adds (or, with a negative sign, removes) a member's counts.
+     *
+     * @param member MembershipReportMember
+     * @param sign 1 to add, -1 to remove
+     */
+    private void count(final MembershipReportMember member, final int sign) {
+        final MemberType memberType = member.getMemberType();
+        if (memberType == null) {
+            return;
+        }
+        final int type = memberType.ordinal();
+        members[type] += sign;
+        if (member.getStatus() != Status.ACTIVE || member.getExpiration() == null) {
+            return;
+        }
+        final long numOfFamily = familyCount(member) * sign;
+        final long expiration = member.getExpiration().getTime();
+        if (expiration < now) {
+            count(type, EXPIRED, sign, true, numOfFamily);
+        } else if (expiration > now) {
+            count(type, ACTIVE, sign, true, numOfFamily);
+            if (expiration < sevenDays) {
+                count(type, WILL_EXPIRE_7_DAYS, sign, true, numOfFamily);
+            } else if (expiration > sevenDays && expiration < thirtyDays) {
+                count(type, WILL_EXPIRE_30_DAYS, sign, true, numOfFamily);
+            }
+        }
+    }
+
+    /**
+     * Counts memberships in a window.
+     *
+     * @param type MemberType ordinal
+     * @param window window
+     * @param count number of memberships
+     * @param family whether the memberships contribute to the family member counts
+     * @param numOfFamily sum of "num of family" of the memberships
+     */
+    private void count(final int type, final int window, final long count, final boolean family,
+                       final long numOfFamily) {
+        memberships[type][window] += count;
+        if (family) {
+            familyMembers[window] += numOfFamily;
+        }
+    }
+
+    /**
+     * Seeds the window counts of a member type.
+     *
+     * @param memberType MemberType
+     * @param active active count
+     * @param expired expired count
+     * @param willExpire30Days will expire in 30 days count
+     * @param willExpire7Days will expire in 7 days count
+     */
+    private void seed(final MemberType memberType, final long active, final long expired,
+                      final long willExpire30Days, final long willExpire7Days) {
+        final long[] windows = memberships[memberType.ordinal()];
+        windows[ACTIVE] = active;
+        windows[EXPIRED] = expired;
+        windows[WILL_EXPIRE_30_DAYS] = willExpire30Days;
+        windows[WILL_EXPIRE_7_DAYS] = willExpire7Days;
+    }
+
+    /**
+     * Gets the number of memberships of a type in a window.
+     *
+     * @param memberType MemberType
+     * @param window window
+     * @return count
+     */
+    private long membership(final MemberType memberType, final int window) {
+        return memberships[memberType.ordinal()][window];
+    }
+
+    /**
+     * Adds days to a time.
+     *
+     * @param millis epoch milliseconds
+     * @param days days
+     * @return epoch milliseconds
+     */
+    private static long plusDays(final long millis, final int days) {
+        return Instant.ofEpochMilli(millis).plus(days, ChronoUnit.DAYS).toEpochMilli();
+    }
+
+    /**
+     * Gets the "num of family" a member contributes to the family member counts.
+     *
+     * @param member MembershipReportMember
+     * @return num of family for family memberships, otherwise 0
+     */
+    private static long familyCount(final MembershipReportMember member) {
+        if (member.getMemberType() != MemberType.Family || member.getNumOfFamily() == null) {
+            return 0L;
+        }
+        return member.getNumOfFamily();
+    }
+
+}
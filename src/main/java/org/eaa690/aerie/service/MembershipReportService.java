@@ -0,0 +1,264 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberRepository;
+import org.eaa690.aerie.model.MemberSyncState;
+import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.model.MembershipReportSnapshot;
+import org.eaa690.aerie.model.MembershipReportSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains a materialized MembershipReport.  The report is built once by the database (and again nightly, to
+ * reconcile any drift), then kept current by applying each member written or tombstoned by a roster sync, and by
+ * periodically rolling the expiry windows forward so members move between the "7 days", "30 days" and "expired"
+ * buckets as time passes.  Reads return the current report without any work.  The report is persisted after each
+ * sync and roll-over so that a restart resumes from it.
+ */
+@Service
+public class MembershipReportService {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MembershipReportService.class);
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * MembershipReportSnapshotRepository.
+     */
+    @Autowired
+    private MembershipReportSnapshotRepository snapshotRepository;
+
+    /**
+     * ObjectMapper.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Counts behind the report.  Guarded by this.
+     */
+    private MembershipReportAggregator aggregator;
+
+    /**
+     * Persisted snapshot.  Guarded by this.
+     */
+    private MembershipReportSnapshot snapshot = new MembershipReportSnapshot();
+
+    /**
+     * Current report.
+     */
+    private volatile MembershipReport report;
+
+    /**
+     * Sets MemberRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberRepository
+     */
+    @Autowired
+    public void setMemberRepository(final MemberRepository value) {
+        memberRepository = value;
+    }
+
+    /**
+     * Sets MembershipReportSnapshotRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MembershipReportSnapshotRepository
+     */
+    @Autowired
+    public void setSnapshotRepository(final MembershipReportSnapshotRepository value) {
+        snapshotRepository = value;
+    }
+
+    /**
+     * Sets ObjectMapper.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value ObjectMapper
+     */
+    @Autowired
+    public void setObjectMapper(final ObjectMapper value) {
+        objectMapper = value;
+    }
+
+    /**
+     * Resumes from the persisted snapshot, rolled forward to now, or builds the report if there is none.
+     */
+    @PostConstruct
+    public synchronized void init() {
+        final Optional<MembershipReport> persisted = snapshotRepository
+                .findTopByOrderByIdDesc()
+                .map(this::restore);
+        if (persisted.isPresent()) {
+            aggregator = new MembershipReportAggregator(persisted.get());
+            rollOver();
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Gets the current MembershipReport.  Its asOf is the time its expiry windows are relative to (at most 15
+     * minutes ago) and its updatedAt is the last time it was rebuilt, rolled over or changed by a sync.
+     *
+     * @return MembershipReport
+     */
+    public MembershipReport getMembershipReport() {
+        return report;
+    }
+
+    /**
+     * Rebuilds the report from the database.
+     *
+     * second, minute, hour, day of month, month, day(s) of week
+     */
+    @Scheduled(cron = "0 15 2 * * *")
+    public synchronized void rebuild() {
+        final Instant now = Instant.now();
+        final MembershipReportAggregator rebuilt = new MembershipReportAggregator(Date.from(now));
+        memberRepository
+                .getMembershipReportRows(Date.from(now),
+                        Date.from(now.plus(CommonConstants.SEVEN, ChronoUnit.DAYS)),
+                        Date.from(now.plus(CommonConstants.THIRTY, ChronoUnit.DAYS)))
+                .forEach(rebuilt::add);
+        aggregator = rebuilt;
+        publish();
+        save();
+    }
+
+    /**
+     * Rolls the expiry windows forward to now.
+     *
+     * second, minute, hour, day of month, month, day(s) of week
+     */
+    @Scheduled(cron = "0 */15 * * * *")
+    public synchronized void rollOver() {
+        final Instant from = aggregator.getAsOf().toInstant();
+        final Instant to = Instant.now();
+        aggregator.rollTo(Date.from(to), memberRepository.findByExpirationInRanges(
+                Date.from(from), Date.from(to),
+                Date.from(from.plus(CommonConstants.SEVEN, ChronoUnit.DAYS)),
+                Date.from(to.plus(CommonConstants.SEVEN, ChronoUnit.DAYS)),
+                Date.from(from.plus(CommonConstants.THIRTY, ChronoUnit.DAYS)),
+                Date.from(to.plus(CommonConstants.THIRTY, ChronoUnit.DAYS))));
+        publish();
+        save();
+    }
+
+    /**
+     * Runs a roster sync write together with the report updates for it, holding the lock rebuild and rollOver take.
+     * Neither can then read the written members from the database before they have been applied here, which would
+     * count them twice.
+     *
+     * @param write commits members, then applies them through memberSaved or membersTombstoned
+     */
+    public synchronized void applyWrite(final Runnable write) {
+        write.run();
+    }
+
+    /**
+     * Applies a member written by a roster sync.
+     *
+     * @param previous sync state of the member before the write, or null for a new member
+     * @param current Member as written
+     */
+    public synchronized void memberSaved(final MemberSyncState previous, final Member current) {
+        if (previous != null && !previous.isTombstoned()) {
+            aggregator.remove(previous);
+        }
+        aggregator.add(current);
+        publish();
+    }
+
+    /**
+     * Applies members tombstoned by a roster sync.
+     *
+     * @param removed sync state of the members before they were tombstoned
+     */
+    public synchronized void membersTombstoned(final Collection<MemberSyncState> removed) {
+        removed.forEach(aggregator::remove);
+        publish();
+    }
+
+    /**
+     * Persists the current report.
+     */
+    public synchronized void save() {
+        try {
+            snapshot.setAsOf(report.getAsOf());
+            snapshot.setReport(objectMapper.writeValueAsString(report));
+            snapshot.setUpdatedAt(new Date());
+            snapshot = snapshotRepository.save(snapshot);
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Unable to persist membership report", e);
+        }
+    }
+
+    /**
+     * Publishes the current counts as the report.
+     */
+    private void publish() {
+        final MembershipReport current = aggregator.toReport();
+        current.setUpdatedAt(new Date());
+        report = current;
+    }
+
+    /**
+     * Reads a persisted report.
+     *
+     * @param persisted MembershipReportSnapshot
+     * @return MembershipReport, or null if it cannot be read
+     */
+    private MembershipReport restore(final MembershipReportSnapshot persisted) {
+        snapshot = persisted;
+        try {
+            final MembershipReport restored = objectMapper.readValue(persisted.getReport(), MembershipReport.class);
+            restored.setAsOf(persisted.getAsOf());
+            return restored;
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Unable to read persisted membership report; rebuilding", e);
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.beans.PropertyDescriptor;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.model.MembershipTrendPeriod;
+import org.eaa690.aerie.model.MembershipTrendPoint;
+import org.eaa690.aerie.model.MembershipTrendPointRepository;
+import org.eaa690.aerie.model.TrendGranularity;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Records the MembershipReport counters once a day and keeps weekly and monthly rollups (the average of the
+ * daily values so far in each week or month) up to date, so that trends can be charted without touching MEMBER.
+ */
+@Service
+public class MembershipTrendService {
+
+    /**
+     * MembershipReportService.
+     */
+    @Autowired
+    private MembershipReportService membershipReportService;
+
+    /**
+     * MembershipTrendPointRepository.
+     */
+    @Autowired
+    private MembershipTrendPointRepository trendPointRepository;
+
+    /**
+     * TransactionTemplate.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Sets MembershipReportService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MembershipReportService
+     */
+    @Autowired
+    public void setMembershipReportService(final MembershipReportService value) {
+        membershipReportService = value;
+    }
+
+    /**
+     * Sets MembershipTrendPointRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MembershipTrendPointRepository
+     */
+    @Autowired
+    public void setTrendPointRepository(final MembershipTrendPointRepository value) {
+        trendPointRepository = value;
+    }
+
+    /**
+     * Sets TransactionTemplate.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TransactionTemplate
+     */
+    @Autowired
+    public void setTransactionTemplate(final TransactionTemplate value) {
+        transactionTemplate = value;
+    }
+
+    /**
+     * Records today's counters and updates this week's and this month's rollups.  Running it again on the same
+     * day replaces that day's values.
+     *
+     * second, minute, hour, day of month, month, day(s) of week
+     */
+    @Scheduled(cron = "0 55 23 * * *")
+    public void recordDailySnapshot() {
+        final LocalDate today = LocalDate.now();
+        final Map<String, Long> metrics = getMetrics(membershipReportService.getMembershipReport());
+        transactionTemplate.executeWithoutResult(status -> {
+            write(TrendGranularity.DAY, today, metrics);
+            rollUp(TrendGranularity.WEEK, today.with(DayOfWeek.MONDAY), today);
+            rollUp(TrendGranularity.MONTH, today.withDayOfMonth(1), today);
+        });
+    }
+
+    /**
+     * Gets the counters of the periods starting within a range.
+     *
+     * @param granularity TrendGranularity
+     * @param from earliest period start
+     * @param to latest period start
+     * @return MembershipTrendPeriod ordered by period start
+     */
+    public List<MembershipTrendPeriod> getTrend(final TrendGranularity granularity,
+                                                final LocalDate from,
+                                                final LocalDate to) {
+        final Map<Date, Map<String, Long>> periods = new LinkedHashMap<>();
+        trendPointRepository
+                .findByGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(granularity, toDate(from), toDate(to))
+                .forEach(point -> periods
+                        .computeIfAbsent(point.getPeriodStart(), periodStart -> new TreeMap<>())
+                        .put(point.getMetric(), point.getTotal()));
+        return periods
+                .entrySet()
+                .stream()
+                .map(entry -> {
+                    final MembershipTrendPeriod period = new MembershipTrendPeriod();
+                    period.setPeriodStart(entry.getKey());
+                    period.setMetrics(entry.getValue());
+                    return period;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recalculates a weekly or monthly rollup from the daily points recorded so far in that period.
+     *
+     * @param granularity WEEK or MONTH
+     * @param periodStart first day of the period
+     * @param today last day recorded
+     */
+    private void rollUp(final TrendGranularity granularity, final LocalDate periodStart, final LocalDate today) {
+        final Map<String, Double> averages = trendPointRepository
+                .findByGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(TrendGranularity.DAY,
+                        toDate(periodStart), toDate(today))
+                .stream()
+                .collect(Collectors.groupingBy(MembershipTrendPoint::getMetric,
+                        Collectors.averagingLong(MembershipTrendPoint::getTotal)));
+        write(granularity, periodStart, averages
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> Math.round(entry.getValue()))));
+    }
+
+    /**
+     * Inserts or updates the points of one period.
+     *
+     * @param granularity TrendGranularity
+     * @param periodStart start of the period
+     * @param metrics counter values keyed by counter name
+     */
+    private void write(final TrendGranularity granularity, final LocalDate periodStart,
+                       final Map<String, Long> metrics) {
+        final Date start = toDate(periodStart);
+        final Map<String, MembershipTrendPoint> existing = trendPointRepository
+                .findByGranularityAndPeriodStart(granularity, start)
+                .stream()
+                .collect(Collectors.toMap(MembershipTrendPoint::getMetric, Function.identity()));
+        metrics.forEach((metric, total) -> {
+            final MembershipTrendPoint point = existing.getOrDefault(metric, new MembershipTrendPoint());
+            point.setGranularity(granularity);
+            point.setPeriodStart(start);
+            point.setMetric(metric);
+            point.setTotal(total);
+            point.setUpdatedAt(new Date());
+            trendPointRepository.save(point);
+        });
+    }
+
+    /**
+     * Gets the counters of a MembershipReport keyed by property name.
+     *
+     * @param report MembershipReport
+     * @return counter values
+     */
+    private static Map<String, Long> getMetrics(final MembershipReport report) {
+        final Map<String, Long> metrics = new TreeMap<>();
+        for (final PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(MembershipReport.class)) {
+            if (descriptor.getPropertyType() == Long.class) {
+                final Object value = ReflectionUtils.invokeMethod(descriptor.getReadMethod(), report);
+                metrics.put(descriptor.getName(), (Long) value);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Gets the start of a day.
+     *
+     * @param day day
+     * @return start of the day in the system time zone
+     */
+    private static Date toDate(final LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+}
@@ -83,4 +83,20 @@ public class PropertyService {
         throw new ResourceNotFoundException(String.format(NO_PROPERTY_FOUND, key));
     }
 
+    /**
+     * Gets a property as an integer, falling back to the provided default when the property is missing or is not a
+     * number.
+     *
+     * @param key Key
+     * @param defaultValue value used when the property cannot be read
+     * @return integer value
+     */
+    public int getInt(final String key, final int defaultValue) {
+        try {
+            return Integer.parseInt(get(key).getValue());
+        } catch (ResourceNotFoundException | NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
 }
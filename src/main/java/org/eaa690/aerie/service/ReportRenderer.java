@@ -0,0 +1,129 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.model.ReportCacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+/**
+ * Renders report templates and caches the HTML by a hash of the template name and the values shown, which also
+ * serves as a strong ETag.  Conditional GETs for unchanged reports get 304 Not Modified without rendering.
+ */
+@Service
+public class ReportRenderer {
+
+    /**
+     * Rendered HTML keyed by ETag.  Only the current rendering of each report is useful, so a handful of entries
+     * is enough.
+     */
+    private final Cache<String, String> renderedReports = CacheBuilder
+            .newBuilder()
+            .maximumSize(CommonConstants.SIXTEEN)
+            .recordStats()
+            .build();
+
+    /**
+     * Requests answered with 304 Not Modified.
+     */
+    private final LongAdder notModified = new LongAdder();
+
+    /**
+     * ITemplateEngine.
+     */
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    /**
+     * Sets ITemplateEngine.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value ITemplateEngine
+     */
+    @Autowired
+    public void setTemplateEngine(final ITemplateEngine value) {
+        templateEngine = value;
+    }
+
+    /**
+     * Renders a report, or answers 304 when the client already has this rendering.
+     *
+     * @param template template name
+     * @param attributes values shown by the template
+     * @param request WebRequest
+     * @return HTML response with ETag
+     */
+    public ResponseEntity<String> render(final String template,
+                                         final Map<String, Object> attributes,
+                                         final WebRequest request) {
+        final String eTag = "\"" + Hashing
+                .sha256()
+                .hashString(template + new TreeMap<>(attributes), StandardCharsets.UTF_8)
+                .toString() + "\"";
+        if (request.checkNotModified(eTag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        final String html;
+        try {
+            html = renderedReports.get(eTag,
+                    () -> templateEngine.process(template, new Context(Locale.getDefault(), attributes)));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to render " + template, e.getCause());
+        }
+        return ResponseEntity.ok().eTag(eTag).contentType(MediaType.TEXT_HTML).body(html);
+    }
+
+    /**
+     * Gets the cache statistics.
+     *
+     * @return ReportCacheStats
+     */
+    public ReportCacheStats getStats() {
+        final CacheStats stats = renderedReports.stats();
+        final ReportCacheStats reportCacheStats = new ReportCacheStats();
+        reportCacheStats.setNotModified(notModified.sum());
+        reportCacheStats.setHits(stats.hitCount() + reportCacheStats.getNotModified());
+        reportCacheStats.setMisses(stats.missCount());
+        final long requests = reportCacheStats.getHits() + reportCacheStats.getMisses();
+        reportCacheStats.setHitRatio(1.0);
+        if (requests > 0) {
+            reportCacheStats.setHitRatio((double) reportCacheStats.getHits() / requests);
+        }
+        return reportCacheStats;
+    }
+
+}
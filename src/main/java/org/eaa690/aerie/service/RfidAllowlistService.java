@@ -0,0 +1,395 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import io.github.bsmichael.rostermanagement.model.Status;
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.constant.PropertyKeyConstants;
+import org.eaa690.aerie.exception.ResourceNotFoundException;
+import org.eaa690.aerie.model.RfidIndexEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes the RFIDs of active members, with their expirations, as a versioned binary allowlist that door
+ * controllers can cache and check badges against without calling the server.  A new version is cut only when the
+ * allowlist changes.  Recent versions are kept so that a controller can fetch just the difference from the version
+ * it holds.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ * magic          4 bytes  "AERL"
+ * format         1 byte   2
+ * kind           1 byte   0 = full snapshot, 1 = diff
+ * version        8 bytes  version of this allowlist
+ * baseVersion    8 bytes  version the diff applies to, 0 for a full snapshot
+ * generatedAt    8 bytes  epoch milliseconds
+ * upserts        4 bytes  count, then per RFID: 1 byte length, ASCII RFID, 4 bytes expiration epoch day
+ * removals       4 bytes  count, then per RFID: 1 byte length, ASCII RFID
+ * signature     64 bytes  ECDSA P-256 / SHA-256 signature of everything above, as r || s
+ * </pre>
+ * Format 2 carries the ECDSA signature above; format 1 carried a 32 byte HMAC-SHA256 and is no longer produced.
+ * RFIDs are upper-cased and sorted, so controllers can binary search them.  RFIDs that are not printable ASCII or
+ * are longer than 255 bytes cannot be encoded, so they are left out and logged.  An expiration epoch day of
+ * Integer.MIN_VALUE means the member has no expiration on file.
+ *
+ * <p>The allowlist is signed with the EC private key in RFID_ALLOWLIST_SIGNING_KEY (base64 PKCS#8).  Door
+ * controllers are provisioned with the matching public key only, so a compromised controller cannot forge an
+ * allowlist for other doors.
+ */
+@Service
+public class RfidAllowlistService {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RfidAllowlistService.class);
+
+    /**
+     * Magic bytes.
+     */
+    private static final byte[] MAGIC = "AERL".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Format version.
+     */
+    private static final int FORMAT = 2;
+
+    /**
+     * Signature algorithm, producing a fixed-length r || s signature.
+     */
+    private static final String SIGNATURE_ALGORITHM = "SHA256withECDSAinP1363Format";
+
+    /**
+     * Curve the signing key must be on, which fixes the signature at 64 bytes.
+     */
+    private static final String SIGNING_CURVE = "secp256r1";
+
+    /**
+     * Longest RFID that fits the one byte length prefix.
+     */
+    private static final int MAX_RFID_LENGTH = 255;
+
+    /**
+     * RFIDs the format can carry: printable ASCII.
+     */
+    private static final Pattern ENCODABLE_RFID = Pattern.compile("[\\x20-\\x7E]{1," + MAX_RFID_LENGTH + "}");
+
+    /**
+     * Kind of a full snapshot.
+     */
+    private static final int FULL = 0;
+
+    /**
+     * Kind of a diff.
+     */
+    private static final int DIFF = 1;
+
+    /**
+     * Number of versions kept for diffs.
+     */
+    private static final int RETAINED_VERSIONS = CommonConstants.SIXTEEN;
+
+    /**
+     * RfidIndex.
+     */
+    @Autowired
+    private RfidIndex rfidIndex;
+
+    /**
+     * PropertyService.
+     */
+    @Autowired
+    private PropertyService propertyService;
+
+    /**
+     * Recent versions, oldest first.  Replaced, never modified.
+     */
+    private volatile List<Version> versions = Collections.emptyList();
+
+    /**
+     * Sets RfidIndex.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value RfidIndex
+     */
+    @Autowired
+    public void setRfidIndex(final RfidIndex value) {
+        rfidIndex = value;
+    }
+
+    /**
+     * Sets PropertyService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value PropertyService
+     */
+    @Autowired
+    public void setPropertyService(final PropertyService value) {
+        propertyService = value;
+    }
+
+    /**
+     * Cuts the first version at startup.
+     */
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Cuts a new version from the RFID index, if the active RFIDs or their expirations have changed.
+     */
+    public synchronized void refresh() {
+        final SortedMap<String, Integer> entries = new TreeMap<>();
+        for (final Map.Entry<String, RfidIndexEntry> entry : rfidIndex.snapshot().entrySet()) {
+            if (entry.getValue().getStatus() != Status.ACTIVE) {
+                continue;
+            }
+            if (!ENCODABLE_RFID.matcher(entry.getKey()).matches()) {
+                LOGGER.warn("Leaving RFID of member {} out of the allowlist: not printable ASCII of at most {} "
+                        + "characters", entry.getValue().getMemberId(), MAX_RFID_LENGTH);
+                continue;
+            }
+            entries.put(entry.getKey(), entry.getValue().getExpirationEpochDay());
+        }
+        final List<Version> current = versions;
+        if (!current.isEmpty() && current.get(current.size() - 1).entries.equals(entries)) {
+            return;
+        }
+        long number = System.currentTimeMillis();
+        if (!current.isEmpty()) {
+            number = Math.max(number, current.get(current.size() - 1).number + 1);
+        }
+        final List<Version> next = new ArrayList<>(current.subList(
+                Math.max(0, current.size() - RETAINED_VERSIONS + 1), current.size()));
+        next.add(new Version(number, entries));
+        versions = Collections.unmodifiableList(next);
+        LOGGER.info("RFID allowlist version {} with {} RFIDs", number, entries.size());
+    }
+
+    /**
+     * Gets the current version number.
+     *
+     * @return version
+     */
+    public long getVersion() {
+        final List<Version> current = versions;
+        return current.get(current.size() - 1).number;
+    }
+
+    /**
+     * Gets the current allowlist, as a diff from the provided version when that version is still retained and as a
+     * full snapshot otherwise.
+     *
+     * @param since version held by the caller, or null
+     * @return signed allowlist
+     * @throws ResourceNotFoundException when no signing key is configured
+     */
+    public byte[] getAllowlist(final Long since) throws ResourceNotFoundException {
+        final PrivateKey key = parsePrivateKey(
+                propertyService.get(PropertyKeyConstants.RFID_ALLOWLIST_SIGNING_KEY).getValue());
+        final List<Version> current = versions;
+        final Version latest = current.get(current.size() - 1);
+        for (final Version base : current) {
+            if (since != null && base.number == since) {
+                return sign(encodeDiff(base, latest), key);
+            }
+        }
+        return sign(encode(FULL, latest.number, 0L, latest.entries, Collections.emptyList()), key);
+    }
+
+    /**
+     * Encodes the difference between two versions.
+     *
+     * @param base version held by the caller
+     * @param latest current version
+     * @return unsigned diff
+     */
+    private static byte[] encodeDiff(final Version base, final Version latest) {
+        final SortedMap<String, Integer> upserts = new TreeMap<>();
+        latest.entries.forEach((rfid, expiration) -> {
+            if (!Objects.equals(base.entries.get(rfid), expiration)) {
+                upserts.put(rfid, expiration);
+            }
+        });
+        final List<String> removals = new ArrayList<>();
+        for (final String rfid : base.entries.keySet()) {
+            if (!latest.entries.containsKey(rfid)) {
+                removals.add(rfid);
+            }
+        }
+        return encode(DIFF, latest.number, base.number, upserts, removals);
+    }
+
+    /**
+     * Encodes an allowlist.
+     *
+     * @param kind FULL or DIFF
+     * @param version version
+     * @param baseVersion base version of a diff
+     * @param upserts RFIDs to add or update, with expiration epoch days
+     * @param removals RFIDs to remove
+     * @return unsigned allowlist
+     */
+    private static byte[] encode(final int kind, final long version, final long baseVersion,
+                                 final SortedMap<String, Integer> upserts, final List<String> removals) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.write(MAGIC);
+            out.writeByte(FORMAT);
+            out.writeByte(kind);
+            out.writeLong(version);
+            out.writeLong(baseVersion);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(upserts.size());
+            for (final Map.Entry<String, Integer> entry : upserts.entrySet()) {
+                writeRfid(out, entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+            out.writeInt(removals.size());
+            for (final String rfid : removals) {
+                writeRfid(out, rfid);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a length-prefixed RFID.
+     *
+     * @param out output
+     * @param rfid normalized RFID
+     * @throws IOException on write failure
+     */
+    private static void writeRfid(final DataOutputStream out, final String rfid) throws IOException {
+        final byte[] value = rfid.getBytes(StandardCharsets.US_ASCII);
+        out.writeByte(value.length);
+        out.write(value);
+    }
+
+    /**
+     * Reads an EC private key on the P-256 curve.
+     *
+     * @param value base64 PKCS#8 encoded key
+     * @return PrivateKey
+     */
+    private static PrivateKey parsePrivateKey(final String value) {
+        final ECPrivateKey key;
+        final ECParameterSpec p256;
+        try {
+            key = (ECPrivateKey) KeyFactory.getInstance("EC")
+                    .generatePrivate(new PKCS8EncodedKeySpec(Base64.getMimeDecoder().decode(value)));
+            final AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec(SIGNING_CURVE));
+            p256 = parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException(PropertyKeyConstants.RFID_ALLOWLIST_SIGNING_KEY
+                    + " is not a base64 PKCS#8 EC private key", e);
+        }
+        final ECParameterSpec params = key.getParams();
+        if (!params.getCurve().equals(p256.getCurve()) || !params.getGenerator().equals(p256.getGenerator())
+                || !params.getOrder().equals(p256.getOrder())) {
+            throw new IllegalStateException(PropertyKeyConstants.RFID_ALLOWLIST_SIGNING_KEY + " is not on "
+                    + SIGNING_CURVE + "; allowlist signatures must be 64 bytes");
+        }
+        return key;
+    }
+
+    /**
+     * Appends an ECDSA signature.
+     *
+     * @param payload unsigned allowlist
+     * @param key signing key
+     * @return signed allowlist
+     */
+    private static byte[] sign(final byte[] payload, final PrivateKey key) {
+        final byte[] signature;
+        try {
+            final Signature signer = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signer.initSign(key);
+            signer.update(payload);
+            signature = signer.sign();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign RFID allowlist", e);
+        }
+        final byte[] signed = new byte[payload.length + signature.length];
+        System.arraycopy(payload, 0, signed, 0, payload.length);
+        System.arraycopy(signature, 0, signed, payload.length, signature.length);
+        return signed;
+    }
+
+    /**
+     * One allowlist version.
+     */
+    private static final class Version {
+
+        /**
+         * Version number.
+         */
+        private final long number;
+
+        /**
+         * Expiration epoch day by RFID.
+         */
+        private final SortedMap<String, Integer> entries;
+
+        /**
+         * Initializes a version.
+         *
+         * @param value version number
+         * @param rfids expiration epoch day by RFID
+         */
+        Version(final long value, final SortedMap<String, Integer> rfids) {
+            number = value;
+            entries = rfids;
+        }
+
+    }
+
+}
@@ -0,0 +1,350 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+
+import io.github.bsmichael.rostermanagement.model.Status;
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.model.MemberRepository;
+import org.eaa690.aerie.model.RfidIndexEntry;
+import org.eaa690.aerie.model.RfidIndexRow;
+import org.eaa690.aerie.model.RfidIndexStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory index from normalized RFID to the member holding it, so that badge checks are answered without a
+ * database round trip.  The index is an open-addressing hash table with linear probing, kept at most half full,
+ * whose entries live in parallel arrays.  Tables are never modified once published: a rebuild or an update builds
+ * a new table and swaps it in, so lookups take no locks.
+ */
+@Service
+public class RfidIndex {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RfidIndex.class);
+
+    /**
+     * Expiration epoch day of a member without an expiration.
+     */
+    private static final int NO_EXPIRATION = Integer.MIN_VALUE;
+
+    /**
+     * Percentiles reported by getStats().
+     */
+    private static final double P50 = 50.0;
+
+    /**
+     * 95th percentile.
+     */
+    private static final double P95 = 95.0;
+
+    /**
+     * 99th percentile.
+     */
+    private static final double P99 = 99.0;
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * Current table.
+     */
+    private volatile Table table = new Table(0);
+
+    /**
+     * Lookup latency.
+     */
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Number of lookups that found a member.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Sets MemberRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberRepository
+     */
+    @Autowired
+    public void setMemberRepository(final MemberRepository value) {
+        memberRepository = value;
+    }
+
+    /**
+     * Builds the index at startup.
+     */
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the index from the database.  The lock is held across the read, the build and the swap, so that a
+     * put() for an RFID committed after the read started waits for the swap rather than being thrown away by it.
+     */
+    public synchronized void refresh() {
+        load(memberRepository.findAllRfidIndexRows());
+        LOGGER.info("RFID index rebuilt with {} entries", table.size);
+    }
+
+    /**
+     * Replaces the index with the provided rows.
+     *
+     * @param rows members holding an RFID
+     */
+    public void load(final Collection<? extends RfidIndexRow> rows) {
+        final Table next = new Table(rows.size());
+        for (final RfidIndexRow row : rows) {
+            next.insert(row);
+        }
+        synchronized (this) {
+            table = next;
+        }
+    }
+
+    /**
+     * Adds or replaces the entry of a member, dropping any RFID the member held before.  Copies the table, so this
+     * is meant for one-off RFID assignments rather than bulk changes.
+     *
+     * @param row member
+     */
+    public synchronized void put(final RfidIndexRow row) {
+        final Table current = table;
+        final Table next = new Table(current.size + 1);
+        for (int slot = 0; slot < current.keys.length; slot++) {
+            if (current.keys[slot] != null && current.ids[slot] != row.getId()) {
+                next.insert(current.keys[slot], current.ids[slot], current.expirationDays[slot],
+                        current.statuses[slot]);
+            }
+        }
+        next.insert(row);
+        table = next;
+    }
+
+    /**
+     * Looks up the member holding an RFID.
+     *
+     * @param rfid RFID, normalized by removing trailing spaces and upper-casing
+     * @return RfidIndexEntry, if any member holds the RFID
+     */
+    public Optional<RfidIndexEntry> lookup(final String rfid) {
+        final long start = System.nanoTime();
+        try {
+            final String key = normalize(rfid);
+            if (key == null) {
+                return Optional.empty();
+            }
+            final Table current = table;
+            final int slot = current.find(key);
+            if (current.keys[slot] == null) {
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(new RfidIndexEntry(current.ids[slot], current.expirationDays[slot],
+                    current.statuses[slot]));
+        } finally {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Copies the index.
+     *
+     * @return entries by normalized RFID, in RFID order
+     */
+    public SortedMap<String, RfidIndexEntry> snapshot() {
+        final Table current = table;
+        final SortedMap<String, RfidIndexEntry> entries = new TreeMap<>();
+        for (int slot = 0; slot < current.keys.length; slot++) {
+            if (current.keys[slot] != null) {
+                entries.put(current.keys[slot], new RfidIndexEntry(current.ids[slot], current.expirationDays[slot],
+                        current.statuses[slot]));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the index size and lookup latency percentiles.
+     *
+     * @return RfidIndexStats
+     */
+    public RfidIndexStats getStats() {
+        final Table current = table;
+        final RfidIndexStats stats = new RfidIndexStats();
+        stats.setSize(current.size);
+        stats.setCapacity(current.keys.length);
+        stats.setBuiltAt(current.builtAt);
+        stats.setLookups(latency.getCount());
+        stats.setHits(hits.sum());
+        stats.setLatencyNanosP50(latency.getPercentile(P50));
+        stats.setLatencyNanosP95(latency.getPercentile(P95));
+        stats.setLatencyNanosP99(latency.getPercentile(P99));
+        stats.setLatencyNanosMax(latency.getMax());
+        return stats;
+    }
+
+    /**
+     * Normalizes an RFID the way the column's case-insensitive PAD SPACE collation compares them: ignoring case and
+     * trailing spaces.  Leading spaces and other whitespace are significant to MySQL, so they are kept.
+     *
+     * @param rfid RFID
+     * @return normalized RFID, or null when empty once trailing spaces are removed
+     */
+    static String normalize(final String rfid) {
+        if (rfid == null) {
+            return null;
+        }
+        int end = rfid.length();
+        while (end > 0 && rfid.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        return rfid.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Open-addressing table.  Only modified by its builder, before it is published.
+     */
+    private static final class Table {
+
+        /**
+         * Normalized RFID per slot, null when the slot is empty.
+         */
+        private final String[] keys;
+
+        /**
+         * Member ID per slot.
+         */
+        private final long[] ids;
+
+        /**
+         * Expiration epoch day per slot.
+         */
+        private final int[] expirationDays;
+
+        /**
+         * Status per slot.
+         */
+        private final Status[] statuses;
+
+        /**
+         * Time the table was built.
+         */
+        private final Date builtAt = new Date();
+
+        /**
+         * Number of occupied slots.
+         */
+        private int size;
+
+        /**
+         * Initializes a table with room for the expected number of entries at no more than half full.
+         *
+         * @param expected expected number of entries
+         */
+        Table(final int expected) {
+            int capacity = CommonConstants.SIXTEEN;
+            while (capacity < expected * 2) {
+                capacity <<= 1;
+            }
+            keys = new String[capacity];
+            ids = new long[capacity];
+            expirationDays = new int[capacity];
+            statuses = new Status[capacity];
+        }
+
+        /**
+         * Gets the slot holding the key, or the empty slot where it would go.
+         *
+         * @param key normalized RFID
+         * @return slot
+         */
+        int find(final String key) {
+            final int mask = keys.length - 1;
+            final int hash = key.hashCode();
+            int slot = (hash ^ (hash >>> CommonConstants.SIXTEEN)) & mask;
+            while (keys[slot] != null && !keys[slot].equals(key)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Inserts a member, if it holds an RFID.
+         *
+         * @param row member
+         */
+        void insert(final RfidIndexRow row) {
+            final String key = normalize(row.getRfid());
+            if (key == null) {
+                return;
+            }
+            int expirationDay = NO_EXPIRATION;
+            if (row.getExpiration() != null) {
+                expirationDay = (int) Instant.ofEpochMilli(row.getExpiration().getTime())
+                        .atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+            }
+            insert(key, row.getId(), expirationDay, row.getStatus());
+        }
+
+        /**
+         * Inserts an entry, replacing any entry with the same key.
+         *
+         * @param key normalized RFID
+         * @param id member ID
+         * @param expirationDay expiration epoch day
+         * @param status status
+         */
+        void insert(final String key, final long id, final int expirationDay, final Status status) {
+            final int slot = find(key);
+            if (keys[slot] == null) {
+                size++;
+            }
+            keys[slot] = key;
+            ids[slot] = id;
+            expirationDays[slot] = expirationDay;
+            statuses[slot] = status;
+        }
+
+    }
+
+}
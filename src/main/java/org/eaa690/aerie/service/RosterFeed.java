@@ -0,0 +1,71 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import io.github.bsmichael.rostermanagement.model.Person;
+
+/**
+ * Iterates over the roster records returned by RosterManager.  RosterManager only returns the whole roster as a
+ * list, so the entire roster is in memory before the first record is handed out and true streaming is not possible
+ * here.  The sync pipeline only depends on this iterator, so a record-at-a-time source can replace it once the
+ * library offers one.
+ */
+public class RosterFeed implements Iterator<Person> {
+
+    /**
+     * Roster records.
+     */
+    private final List<Person> persons;
+
+    /**
+     * Index of the next record.
+     */
+    private int next;
+
+    /**
+     * Initializes an instance of <code>RosterFeed</code>.
+     *
+     * @param records roster records
+     */
+    public RosterFeed(final List<Person> records) {
+        persons = records;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() {
+        return persons != null && next < persons.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Person next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return persons.get(next++);
+    }
+
+}
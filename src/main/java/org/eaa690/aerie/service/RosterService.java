@@ -16,32 +16,43 @@
 
 package org.eaa690.aerie.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import io.github.bsmichael.rostermanagement.RosterManager;
 import io.github.bsmichael.rostermanagement.model.MemberType;
-import io.github.bsmichael.rostermanagement.model.Person;
-import io.github.bsmichael.rostermanagement.model.Status;
-import ma.glasnost.orika.MapperFacade;
-import ma.glasnost.orika.MapperFactory;
-import ma.glasnost.orika.impl.DefaultMapperFactory;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.eaa690.aerie.constant.CommonConstants;
 import org.eaa690.aerie.constant.PropertyKeyConstants;
+import org.eaa690.aerie.exception.InvalidPayloadException;
 import org.eaa690.aerie.exception.ResourceExistsException;
 import org.eaa690.aerie.exception.ResourceNotFoundException;
 import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberData;
+import org.eaa690.aerie.model.MemberDataPage;
+import org.eaa690.aerie.model.MemberDataRow;
 import org.eaa690.aerie.model.MemberRepository;
+import org.eaa690.aerie.model.MemberSyncState;
 import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.model.RfidIndexEntry;
+import org.eaa690.aerie.model.RfidIndexStats;
+import org.eaa690.aerie.model.RosterSyncResult;
+import org.eaa690.aerie.model.RosterSyncRun;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 
 /**
@@ -55,6 +66,20 @@ public class RosterService {
      */
     private static final Log LOGGER = LogFactory.getLog(RosterService.class);
 
+    /**
+     * Member types sent membership renewal messages.
+     */
+    private static final List<MemberType> RENEWAL_MEMBER_TYPES =
+            List.of(MemberType.Regular, MemberType.Family, MemberType.Student);
+
+    /**
+     * Property keys of the number of days before expiration that each renewal message is sent.
+     */
+    private static final List<String> RENEWAL_MSG_DAYS_KEYS = List.of(
+            PropertyKeyConstants.MEMBERSHIP_RENEWAL_FIRST_MSG_DAYS_KEY,
+            PropertyKeyConstants.MEMBERSHIP_RENEWAL_SECOND_MSG_DAYS_KEY,
+            PropertyKeyConstants.MEMBERSHIP_RENEWAL_THIRD_MSG_DAYS_KEY);
+
     /**
      * PropertyService.
      */
@@ -79,6 +104,42 @@ public class RosterService {
     @Autowired
     private RosterManager rosterManager;
 
+    /**
+     * MemberBatchWriter.
+     */
+    @Autowired
+    private MemberBatchWriter memberBatchWriter;
+
+    /**
+     * MemberMapper.
+     */
+    @Autowired
+    private MemberMapper memberMapper;
+
+    /**
+     * RosterSyncHistoryService.
+     */
+    @Autowired
+    private RosterSyncHistoryService rosterSyncHistoryService;
+
+    /**
+     * MembershipReportService.
+     */
+    @Autowired
+    private MembershipReportService membershipReportService;
+
+    /**
+     * RfidIndex.
+     */
+    @Autowired
+    private RfidIndex rfidIndex;
+
+    /**
+     * RfidAllowlistService.
+     */
+    @Autowired
+    private RfidAllowlistService rfidAllowlistService;
+
     /**
      * Sets PropertyService.
      * Note: mostly used for unit test mocks
@@ -124,93 +185,200 @@ public class RosterService {
     }
 
     /**
-     * MapperFactory.
+     * Sets MemberBatchWriter.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberBatchWriter
+     */
+    @Autowired
+    public void setMemberBatchWriter(final MemberBatchWriter value) {
+        memberBatchWriter = value;
+    }
+
+    /**
+     * Sets MemberMapper.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberMapper
      */
-    private final MapperFactory mapperFactory = new DefaultMapperFactory.Builder().build();
+    @Autowired
+    public void setMemberMapper(final MemberMapper value) {
+        memberMapper = value;
+    }
 
     /**
-     * Updates every 6 hours.
+     * Sets RosterSyncHistoryService.
+     * Note: mostly used for unit test mocks
      *
-     * second, minute, hour, day of month, month, day(s) of week
+     * @param value RosterSyncHistoryService
+     */
+    @Autowired
+    public void setRosterSyncHistoryService(final RosterSyncHistoryService value) {
+        rosterSyncHistoryService = value;
+    }
+
+    /**
+     * Sets MembershipReportService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MembershipReportService
+     */
+    @Autowired
+    public void setMembershipReportService(final MembershipReportService value) {
+        membershipReportService = value;
+    }
+
+    /**
+     * Sets RfidIndex.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value RfidIndex
+     */
+    @Autowired
+    public void setRfidIndex(final RfidIndex value) {
+        rfidIndex = value;
+    }
+
+    /**
+     * Sets RfidAllowlistService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value RfidAllowlistService
+     */
+    @Autowired
+    public void setRfidAllowlistService(final RfidAllowlistService value) {
+        rfidAllowlistService = value;
+    }
+
+    /**
+     * Synchronizes the local roster with the roster management system.  The sync state of existing members is
+     * loaded once and compared by content hash so that only added, changed or removed members are written.
+     * Members missing from the feed are tombstoned rather than deleted, and revived if they reappear.
+     * Records are mapped by a pool of ROSTER_SYNC_WORKER_THREADS_KEY workers and written in chunks of
+     * ROSTER_SYNC_BATCH_SIZE_KEY.  The outcome, with its fetch, map and persist timings, is recorded on the
+     * given RosterSyncRun.  Callers should go through RosterSyncCoordinator so that syncs never overlap.
+     *
+     * @param run RosterSyncRun started for this sync
+     * @return RosterSyncResult
      */
-    @Scheduled(cron = "0 0 0,6,12,18 * * *")
-    public void update() {
-        mapperFactory.classMap(Person.class, Member.class).byDefault();
-        MapperFacade mapper = mapperFactory.getMapperFacade();
-        rosterManager
-                .getAllEntries()
+    public RosterSyncResult syncRoster(final RosterSyncRun run) {
+        try {
+            final RosterSyncResult result = runSync();
+            membershipReportService.save();
+            rosterSyncHistoryService.finish(run, result);
+            return result;
+        } catch (RuntimeException e) {
+            rosterSyncHistoryService.fail(run, e);
+            membershipReportService.rebuild();
+            throw e;
+        }
+    }
+
+    /**
+     * Performs a single roster sync.
+     *
+     * @return RosterSyncResult
+     */
+    private RosterSyncResult runSync() {
+        final Map<Long, MemberSyncState> existingMembers = memberRepository
+                .findAllProjectedBy()
+                .stream()
+                .filter(member -> member.getRosterId() != null)
+                .collect(Collectors.toMap(MemberSyncState::getRosterId, Function.identity(),
+                        (first, second) -> first));
+        final RosterSyncPipeline pipeline = new RosterSyncPipeline(memberMapper, memberBatchWriter, existingMembers,
+                membershipReportService::memberSaved,
+                membershipReportService::applyWrite,
+                propertyService.getInt(PropertyKeyConstants.ROSTER_SYNC_WORKER_THREADS_KEY, CommonConstants.FOUR),
+                memberBatchWriter.getBatchSize());
+        final RosterSyncResult result;
+        try {
+            final long fetchStart = System.currentTimeMillis();
+            final RosterFeed feed = new RosterFeed(rosterManager.getAllEntries());
+            final long fetchMillis = System.currentTimeMillis() - fetchStart;
+            result = pipeline.run(feed);
+            result.setFetchMillis(fetchMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Roster sync interrupted", e);
+        }
+        final Set<Long> feedRosterIds = pipeline.getFeedRosterIds();
+        if (!pipeline.isFeedComplete() || feedRosterIds.isEmpty()) {
+            LOGGER.warn("Roster feed was empty or incomplete; skipping removal of existing members");
+            return result;
+        }
+        if (result.getFailed() > 0) {
+            LOGGER.warn(result.getFailed() + " roster records failed to map; skipping removal of existing members");
+            return result;
+        }
+        final List<MemberSyncState> removedMembers = existingMembers
+                .values()
                 .stream()
-                .map(person -> mapper.map(person, Member.class))
-                .forEach(member -> {
-                    memberRepository
-                            .findByRosterId(member.getRosterId())
-                            .ifPresent(value -> member.setId(value.getId()));
-                    if (member.getCreatedAt() == null) {
-                        member.setCreatedAt(new Date());
-                    }
-                    member.setUpdatedAt(new Date());
-                    memberRepository.save(member);
+                .filter(member -> !member.isTombstoned())
+                .filter(member -> !feedRosterIds.contains(member.getRosterId()))
+                .collect(Collectors.toList());
+        result.setDeleted(removedMembers.size());
+        final long tombstoneStart = System.currentTimeMillis();
+        membershipReportService.applyWrite(() -> {
+            memberBatchWriter.tombstoneByIds(removedMembers
+                    .stream()
+                    .map(MemberSyncState::getId)
+                    .collect(Collectors.toList()));
+            membershipReportService.membersTombstoned(removedMembers);
         });
+        result.setPersistMillis(result.getPersistMillis() + System.currentTimeMillis() - tombstoneStart);
+        return result;
     }
 
     /**
-     * Sends membership renewal messages on a scheduled basis.
+     * Purges members that have been tombstoned for longer than the configured retention period.
+     *
+     * second, minute, hour, day of month, month, day(s) of week
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeTombstonedMembers() {
+        final int retentionDays = propertyService.getInt(PropertyKeyConstants.MEMBER_TOMBSTONE_RETENTION_DAYS_KEY,
+                CommonConstants.NINETY);
+        final Date cutoff = Date.from(Instant.now().minus(retentionDays, ChronoUnit.DAYS));
+        LOGGER.info("Purged tombstoned members: " + memberBatchWriter.purgeTombstonedBefore(cutoff));
+    }
+
+    /**
+     * Sends membership renewal messages on a scheduled basis.  The reminder offsets are resolved once per run, and
+     * each reminder day is an indexed query on expiration, so only the members due that day are loaded.
      */
     @Scheduled(cron = "0 0 9 * * *")
     public void sendMembershipRenewalMessages() {
-        memberRepository
-                .findAll()
-                .ifPresent(members -> members
-                        .stream()
-                        .filter(member -> member.getMemberType() == MemberType.Regular
-                                || member.getMemberType() == MemberType.Family
-                                || member.getMemberType() == MemberType.Student)
-                        .forEach(member -> {
-                            try {
-                                final String expirationDate =
-                                        ZonedDateTime.ofInstant(member.getExpiration().toInstant(),
-                                                ZoneId.systemDefault()).format(
-                                                        DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                                if (expirationDate.equals(
-                                        getFutureDateStr(PropertyKeyConstants.MEMBERSHIP_RENEWAL_FIRST_MSG_DAYS_KEY))) {
-                                    communicationService.sendRenewMembershipMsg(member);
-                                }
-                                if (expirationDate.equals(getFutureDateStr(
-                                                PropertyKeyConstants.MEMBERSHIP_RENEWAL_SECOND_MSG_DAYS_KEY))) {
-                                    communicationService.sendRenewMembershipMsg(member);
-                                }
-                                if (expirationDate.equals(
-                                        getFutureDateStr(PropertyKeyConstants.MEMBERSHIP_RENEWAL_THIRD_MSG_DAYS_KEY))) {
-                                    communicationService.sendRenewMembershipMsg(member);
-                                }
-                                if (expirationDate.equals(ZonedDateTime.ofInstant(Instant.now(),
-                                        ZoneId.systemDefault()).format(
-                                        DateTimeFormatter.ofPattern("yyyy-MM-dd")))) {
-                                    LOGGER.info("addOrUpdateNonMember");
-                                    //mailChimpService.addOrUpdateNonMember(
-                                    //        member.getFirstName(),
-                                    //        member.getLastName(),
-                                    //        member.getEmail());
-                                }
-                            } catch (ResourceNotFoundException rnfe) {
-                                LOGGER.error("Error", rnfe);
-                            }
-                        }));
+        final LocalDate today = LocalDate.now();
+        for (final String key : RENEWAL_MSG_DAYS_KEYS) {
+            try {
+                final int days = Integer.parseInt(propertyService.get(key).getValue());
+                getRenewingMembersExpiringOn(today.plusDays(days))
+                        .forEach(member -> communicationService.sendRenewMembershipMsg(member));
+            } catch (ResourceNotFoundException | NumberFormatException e) {
+                LOGGER.error("Error", e);
+            }
+        }
+        getRenewingMembersExpiringOn(today).forEach(member -> {
+            LOGGER.info("addOrUpdateNonMember");
+            //mailChimpService.addOrUpdateNonMember(
+            //        member.getFirstName(),
+            //        member.getLastName(),
+            //        member.getEmail());
+        });
     }
 
     /**
-     * Retrieves the member affiliated with the provided RFID.
+     * Gets the Regular, Family and Student members whose membership expires on the provided day.
      *
-     * @param rfid RFID
-     * @return Member
-     * @throws ResourceNotFoundException when no member matches
+     * @param day expiration day
+     * @return members
      */
-    public Member getMemberByRFID(final String rfid) throws ResourceNotFoundException {
-        final Optional<Member> member = memberRepository.findByRfid(rfid);
-        if (member.isPresent()) {
-            return member.get();
-        }
-        throw new ResourceNotFoundException("No member found matching RFID=" + rfid);
+    private List<Member> getRenewingMembersExpiringOn(final LocalDate day) {
+        final ZoneId zone = ZoneId.systemDefault();
+        return memberRepository.findByMemberTypeInAndExpirationDay(RENEWAL_MEMBER_TYPES,
+                Date.from(day.atStartOfDay(zone).toInstant()),
+                Date.from(day.plusDays(1).atStartOfDay(zone).toInstant()));
     }
 
     /**
@@ -229,12 +397,48 @@ public class RosterService {
     }
 
     /**
-     * Gets all members.
+     * Retrieves the MemberData of the member affiliated with the provided ID, without loading the full Member.
      *
-     * @return list of Member
+     * @param id Member Roster ID
+     * @return MemberData
+     * @throws ResourceNotFoundException when no member matches
      */
-    public List<Member> getAllMembers() {
-        return memberRepository.findAll().orElse(null);
+    public MemberData getMemberDataByRosterID(final Long id) throws ResourceNotFoundException {
+        final Optional<MemberDataRow> row = memberRepository.findMemberDataByRosterId(id);
+        if (row.isPresent()) {
+            return row.get().toMemberData();
+        }
+        throw new ResourceNotFoundException("No member found matching ID=" + id);
+    }
+
+    /**
+     * Gets a page of member data, in ID order, starting after the provided cursor.
+     *
+     * @param cursor opaque cursor from the previous page, or null for the first page
+     * @param limit requested page size, or null for the MEMBER_PAGE_SIZE_KEY default; at most 1000
+     * @param updatedSince only include members updated at or after this time, or null for all members
+     * @return MemberDataPage
+     * @throws InvalidPayloadException when the cursor is not valid
+     */
+    public MemberDataPage getMemberDataPage(final String cursor, final Integer limit, final Date updatedSince)
+            throws InvalidPayloadException {
+        int pageSize = propertyService.getInt(PropertyKeyConstants.MEMBER_PAGE_SIZE_KEY, CommonConstants.ONE_HUNDRED);
+        if (limit != null) {
+            pageSize = limit;
+        }
+        pageSize = Math.max(1, Math.min(pageSize, CommonConstants.ONE_THOUSAND));
+        final List<MemberDataRow> rows = memberRepository.findPageAfter(decodeCursor(cursor),
+                Optional.ofNullable(updatedSince).orElse(new Date(0)), PageRequest.of(0, pageSize + 1));
+        final MemberDataPage page = new MemberDataPage();
+        final List<MemberData> records = new ArrayList<>();
+        for (MemberDataRow row : rows.subList(0, Math.min(pageSize, rows.size()))) {
+            records.add(row.toMemberData());
+        }
+        page.setMembers(records);
+        if (rows.size() > pageSize) {
+            page.setNextCursor(encodeCursor(records.get(records.size() - 1).getId()));
+        }
+        return page;
     }
 
     /**
@@ -243,11 +447,58 @@ public class RosterService {
      * @param id Member Roster ID
      * @param rfid new RFID value
      * @throws ResourceNotFoundException when no member matches
+     * @throws ResourceExistsException when the RFID is assigned to another member
      */
-    public void updateMemberRFID(final Long id, final String rfid) throws ResourceNotFoundException {
+    public void updateMemberRFID(final Long id, final String rfid)
+            throws ResourceNotFoundException, ResourceExistsException {
         final Member member = getMemberByRosterID(id);
+        if (memberRepository.existsByRfidAndIdNot(rfid, member.getId())) {
+            throw new ResourceExistsException("RFID=" + rfid + " is already assigned to another member");
+        }
         member.setRfid(rfid);
-        memberRepository.save(member);
+        member.setUpdatedAt(new Date());
+        rfidIndex.put(memberRepository.save(member));
+        rfidAllowlistService.refresh();
+    }
+
+    /**
+     * Retrieves the in-memory RFID index entry of the member holding the provided RFID, without a database round
+     * trip.
+     *
+     * @param rfid RFID
+     * @return RfidIndexEntry, if any member holds the RFID
+     */
+    public Optional<RfidIndexEntry> getRfidIndexEntry(final String rfid) {
+        return rfidIndex.lookup(rfid);
+    }
+
+    /**
+     * Gets the signed RFID allowlist for door controllers.
+     *
+     * @param since allowlist version held by the caller, or null
+     * @return signed allowlist
+     * @throws ResourceNotFoundException when no signing key is configured
+     */
+    public byte[] getRfidAllowlist(final Long since) throws ResourceNotFoundException {
+        return rfidAllowlistService.getAllowlist(since);
+    }
+
+    /**
+     * Gets the current RFID allowlist version.
+     *
+     * @return version
+     */
+    public long getRfidAllowlistVersion() {
+        return rfidAllowlistService.getVersion();
+    }
+
+    /**
+     * Gets the RFID index size and lookup latency.
+     *
+     * @return RfidIndexStats
+     */
+    public RfidIndexStats getRfidIndexStats() {
+        return rfidIndex.getStats();
     }
 
     /**
@@ -259,9 +510,7 @@ public class RosterService {
      */
     public Member saveNewMember(final Member member) throws ResourceExistsException {
         LOGGER.info("Saving new member: " + member);
-        mapperFactory.classMap(Member.class, Person.class);
-        MapperFacade mapper = mapperFactory.getMapperFacade();
-        rosterManager.savePerson(mapper.map(member, Person.class));
+        rosterManager.savePerson(memberMapper.toPerson(member));
         return member;
     }
 
@@ -272,203 +521,48 @@ public class RosterService {
      */
     public void saveRenewingMember(final Member member) {
         LOGGER.info("Saving renewing member: " + member);
-        mapperFactory.classMap(Member.class, Person.class);
-        MapperFacade mapper = mapperFactory.getMapperFacade();
-        rosterManager.savePerson(mapper.map(member, Person.class));
+        rosterManager.savePerson(memberMapper.toPerson(member));
     }
 
     /**
-     * Generates a MembershipReport.
+     * Gets the MembershipReport, as maintained by MembershipReportService.
      *
      * @return MembershipReport
      */
     public MembershipReport getMembershipReport() {
-        final Date today = new Date();
-        final Date thirtyDays = Date.from(Instant.now().plus(30, ChronoUnit.DAYS));
-        final Date sevenDays = Date.from(Instant.now().plus(7, ChronoUnit.DAYS));
-        final MembershipReport membershipReport = new MembershipReport();
-        final List<Member> allMembers = memberRepository.findAll().orElse(new ArrayList<>());
-        setActiveCounts(today, membershipReport, allMembers);
-        setExpiredCounts(today, membershipReport, allMembers);
-        setWillExpire30DaysCounts(today, thirtyDays, sevenDays, membershipReport, allMembers);
-        setWillExpire7DaysCounts(today, sevenDays, membershipReport, allMembers);
-        membershipReport.setLifetimeMemberCount(
-                allMembers.stream().filter(m -> MemberType.Lifetime == m.getMemberType()).count());
-        membershipReport.setHonoraryMemberCount(
-                allMembers.stream().filter(m -> MemberType.Honorary == m.getMemberType()).count());
-        membershipReport.setProspectMemberCount(
-                allMembers.stream().filter(m -> MemberType.Prospect == m.getMemberType()).count());
-        membershipReport.setNonMemberCount(
-                allMembers.stream().filter(m -> MemberType.NonMember == m.getMemberType()).count());
-        return membershipReport;
-    }
-
-    private void setActiveCounts(final Date today,
-                                 final MembershipReport membershipReport,
-                                 final List<Member> allMembers) {
-        membershipReport.setRegularMemberCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Regular == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMembershipCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMemberCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .map(Member::getNumOfFamily)
-                        .reduce(0L, Long::sum));
-        membershipReport.setStudentMemberCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Student == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .count());
-    }
-
-    private void setWillExpire7DaysCounts(final Date today,
-                                          final Date sevenDays,
-                                          final MembershipReport membershipReport,
-                                          final List<Member> allMembers) {
-        membershipReport.setRegularMemberWillExpire7DaysCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Regular == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> sevenDays.after(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMembershipWillExpire7DaysCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> sevenDays.after(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMemberWillExpire7DaysCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> sevenDays.after(m.getExpiration()))
-                        .map(Member::getNumOfFamily)
-                        .reduce(0L, Long::sum));
-        membershipReport.setStudentMemberWillExpire7DaysCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Student == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> sevenDays.after(m.getExpiration()))
-                        .count());
+        return membershipReportService.getMembershipReport();
     }
 
-    private void setWillExpire30DaysCounts(final Date today,
-                                           final Date thirtyDays,
-                                           final Date sevenDays,
-                                           final MembershipReport membershipReport,
-                                           final List<Member> allMembers) {
-        membershipReport.setRegularMemberWillExpire30DaysCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Regular == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> thirtyDays.after(m.getExpiration()))
-                        .filter(m -> sevenDays.before(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMembershipWillExpire30DaysCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> thirtyDays.after(m.getExpiration()))
-                        .filter(m -> sevenDays.before(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMemberWillExpire30DaysCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> thirtyDays.after(m.getExpiration()))
-                        .filter(m -> sevenDays.before(m.getExpiration()))
-                        .map(Member::getNumOfFamily)
-                        .reduce(0L, Long::sum));
-        membershipReport.setStudentMemberWillExpire30DaysCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Student == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> thirtyDays.after(m.getExpiration()))
-                        .filter(m -> sevenDays.before(m.getExpiration()))
-                        .count());
-    }
-
-    private void setExpiredCounts(final Date today,
-                                  final MembershipReport membershipReport,
-                                  final List<Member> allMembers) {
-        membershipReport.setRegularMemberExpiredCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Regular == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.after(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMembershipExpiredCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.after(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMemberExpiredCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.after(m.getExpiration()))
-                        .map(Member::getNumOfFamily)
-                        .reduce(0L, Long::sum));
-        membershipReport.setStudentMemberExpiredCount(
-                allMembers
-                        .stream()
-                        .filter(m -> MemberType.Student == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.after(m.getExpiration()))
-                        .count());
+    /**
+     * Encodes a member ID as an opaque page cursor.
+     *
+     * @param id ID of the last member on a page
+     * @return cursor
+     */
+    private static String encodeCursor(final Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("m:" + id).getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Gets date string for provided property key.
+     * Decodes a page cursor into the ID of the last member on the previous page.
      *
-     * @param key property key
-     * @return date string
-     * @throws ResourceNotFoundException when property not found
-     */
-    private String getFutureDateStr(final String key) throws ResourceNotFoundException {
-        return ZonedDateTime.ofInstant(Instant
-                .now()
-                .plus(Integer.parseInt(propertyService
-                                .get(key)
-                                .getValue()),
-                        ChronoUnit.DAYS),
-                ZoneId.systemDefault()).format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+     * @param cursor cursor, or null for the first page
+     * @return member ID, or 0 for the first page
+     * @throws InvalidPayloadException when the cursor is not valid
+     */
+    private static Long decodeCursor(final String cursor) throws InvalidPayloadException {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (value.startsWith("m:")) {
+                return Long.valueOf(value.substring(2));
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug("Invalid cursor " + cursor, e);
+        }
+        throw new InvalidPayloadException("Invalid cursor " + cursor);
     }
 
 }
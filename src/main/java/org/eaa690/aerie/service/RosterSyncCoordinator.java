@@ -0,0 +1,239 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.eaa690.aerie.model.RosterSyncRun;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs roster syncs one at a time on a background thread.  A trigger that arrives while a sync is in flight,
+ * whether from the schedule or from POST /roster/update, is coalesced into that sync.  Callers receive a copy of
+ * the run as it was when the sync started, so they get a run ID right away and can poll it for status, while the
+ * background thread keeps the original to itself.
+ */
+@Service
+public class RosterSyncCoordinator {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RosterSyncCoordinator.class);
+
+    /**
+     * Runs syncs in the background, one at a time.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("roster-sync-%d")
+            .setDaemon(true)
+            .build());
+
+    /**
+     * RosterService.
+     */
+    @Autowired
+    private RosterService rosterService;
+
+    /**
+     * RosterSyncHistoryService.
+     */
+    @Autowired
+    private RosterSyncHistoryService rosterSyncHistoryService;
+
+    /**
+     * MemberColumnIndex.
+     */
+    @Autowired
+    private MemberColumnIndex memberColumnIndex;
+
+    /**
+     * RfidIndex.
+     */
+    @Autowired
+    private RfidIndex rfidIndex;
+
+    /**
+     * RfidAllowlistService.
+     */
+    @Autowired
+    private RfidAllowlistService rfidAllowlistService;
+
+    /**
+     * Copy of the sync currently in flight as it was when it started, or null.
+     */
+    private RosterSyncRun inFlight;
+
+    /**
+     * Sets RosterService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value RosterService
+     */
+    @Autowired
+    public void setRosterService(final RosterService value) {
+        rosterService = value;
+    }
+
+    /**
+     * Sets RosterSyncHistoryService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value RosterSyncHistoryService
+     */
+    @Autowired
+    public void setRosterSyncHistoryService(final RosterSyncHistoryService value) {
+        rosterSyncHistoryService = value;
+    }
+
+    /**
+     * Sets MemberColumnIndex.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberColumnIndex
+     */
+    @Autowired
+    public void setMemberColumnIndex(final MemberColumnIndex value) {
+        memberColumnIndex = value;
+    }
+
+    /**
+     * Sets RfidIndex.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value RfidIndex
+     */
+    @Autowired
+    public void setRfidIndex(final RfidIndex value) {
+        rfidIndex = value;
+    }
+
+    /**
+     * Sets RfidAllowlistService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value RfidAllowlistService
+     */
+    @Autowired
+    public void setRfidAllowlistService(final RfidAllowlistService value) {
+        rfidAllowlistService = value;
+    }
+
+    /**
+     * Fails runs that a previous process left in flight, since nothing will ever finish them.
+     */
+    @PostConstruct
+    public void init() {
+        rosterSyncHistoryService.failAbandonedRuns();
+    }
+
+    /**
+     * Updates every 6 hours.
+     *
+     * second, minute, hour, day of month, month, day(s) of week
+     */
+    @Scheduled(cron = "0 0 0,6,12,18 * * *")
+    public void update() {
+        trigger();
+    }
+
+    /**
+     * Starts a roster sync in the background, unless one is already in flight.
+     *
+     * @return copy of the RosterSyncRun that will perform the sync, as it was when the sync started
+     */
+    public synchronized RosterSyncRun trigger() {
+        if (inFlight != null) {
+            LOGGER.info("Roster sync {} already in flight; coalescing trigger", inFlight.getId());
+            return inFlight;
+        }
+        final RosterSyncRun run = rosterSyncHistoryService.start();
+        inFlight = copyOf(run);
+        executor.execute(() -> sync(run));
+        return inFlight;
+    }
+
+    /**
+     * Performs a roster sync, refreshes the member index and clears the in-flight marker once it is done.
+     *
+     * @param run RosterSyncRun
+     */
+    private void sync(final RosterSyncRun run) {
+        try {
+            try {
+                LOGGER.info("Roster sync {} completed: {}", run.getId(), rosterService.syncRoster(run));
+            } catch (RuntimeException e) {
+                LOGGER.error("Roster sync " + run.getId() + " failed", e);
+            }
+            try {
+                memberColumnIndex.refresh();
+            } catch (RuntimeException e) {
+                LOGGER.error("Member index refresh failed", e);
+            }
+            try {
+                rfidIndex.refresh();
+                rfidAllowlistService.refresh();
+            } catch (RuntimeException e) {
+                LOGGER.error("RFID index refresh failed", e);
+            }
+        } finally {
+            complete();
+        }
+    }
+
+    /**
+     * Copies the fields of a run that has just started.
+     *
+     * @param run RosterSyncRun
+     * @return copy
+     */
+    private static RosterSyncRun copyOf(final RosterSyncRun run) {
+        final RosterSyncRun copy = new RosterSyncRun();
+        copy.setId(run.getId());
+        copy.setCreatedAt(run.getCreatedAt());
+        copy.setUpdatedAt(run.getUpdatedAt());
+        copy.setStartedAt(run.getStartedAt());
+        copy.setStatus(run.getStatus());
+        return copy;
+    }
+
+    /**
+     * Clears the in-flight marker.
+     */
+    private synchronized void complete() {
+        inFlight = null;
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
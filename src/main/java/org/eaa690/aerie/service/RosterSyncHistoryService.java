@@ -0,0 +1,181 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eaa690.aerie.constant.CommonConstants;
+import org.eaa690.aerie.exception.ResourceNotFoundException;
+import org.eaa690.aerie.model.RosterSyncResult;
+import org.eaa690.aerie.model.RosterSyncRun;
+import org.eaa690.aerie.model.RosterSyncRunRepository;
+import org.eaa690.aerie.model.RosterSyncRunSummary;
+import org.eaa690.aerie.model.RosterSyncStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records one RosterSyncRun per roster sync, with per-stage timings and counts, and summarizes recent runs.
+ */
+@Service
+public class RosterSyncHistoryService {
+
+    /**
+     * Median percentile.
+     */
+    private static final int P50 = CommonConstants.FIFTY;
+
+    /**
+     * 95th percentile.
+     */
+    private static final int P95 = 95;
+
+    /**
+     * RosterSyncRunRepository.
+     */
+    @Autowired
+    private RosterSyncRunRepository rosterSyncRunRepository;
+
+    /**
+     * Sets RosterSyncRunRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value RosterSyncRunRepository
+     */
+    @Autowired
+    public void setRosterSyncRunRepository(final RosterSyncRunRepository value) {
+        rosterSyncRunRepository = value;
+    }
+
+    /**
+     * Records the start of a roster sync.
+     *
+     * @return RosterSyncRun
+     */
+    public RosterSyncRun start() {
+        final RosterSyncRun run = new RosterSyncRun();
+        run.setStartedAt(new Date());
+        run.setStatus(RosterSyncStatus.RUNNING);
+        return rosterSyncRunRepository.save(run);
+    }
+
+    /**
+     * Gets a roster sync run.
+     *
+     * @param id RosterSyncRun ID
+     * @return RosterSyncRun
+     * @throws ResourceNotFoundException when no run is found
+     */
+    public RosterSyncRun getRun(final Long id) throws ResourceNotFoundException {
+        return rosterSyncRunRepository
+                .findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No roster sync run found for ID: " + id));
+    }
+
+    /**
+     * Records the successful completion of a roster sync.
+     *
+     * @param run RosterSyncRun
+     * @param result RosterSyncResult
+     * @return RosterSyncRun
+     */
+    public RosterSyncRun finish(final RosterSyncRun run, final RosterSyncResult result) {
+        run.setFetchMillis(result.getFetchMillis());
+        run.setMapMillis(result.getMapMillis());
+        run.setPersistMillis(result.getPersistMillis());
+        run.setRecords(result.getRecords());
+        run.setAdded(result.getAdded());
+        run.setChanged(result.getChanged());
+        run.setUnchanged(result.getUnchanged());
+        run.setDeleted(result.getDeleted());
+        run.setFailed(result.getFailed());
+        run.setStatus(RosterSyncStatus.SUCCEEDED);
+        run.setFinishedAt(new Date());
+        run.setUpdatedAt(run.getFinishedAt());
+        return rosterSyncRunRepository.save(run);
+    }
+
+    /**
+     * Records the failure of a roster sync.
+     *
+     * @param run RosterSyncRun
+     * @param e cause of the failure
+     * @return RosterSyncRun
+     */
+    public RosterSyncRun fail(final RosterSyncRun run, final Exception e) {
+        run.setStatus(RosterSyncStatus.FAILED);
+        run.setErrorMessage(StringUtils.abbreviate(String.valueOf(e.getMessage()), CommonConstants.ONE_THOUSAND));
+        run.setFinishedAt(new Date());
+        run.setUpdatedAt(run.getFinishedAt());
+        return rosterSyncRunRepository.save(run);
+    }
+
+    /**
+     * Marks runs left RUNNING by a previous process (e.g. after a restart mid-sync) as failed.
+     */
+    public void failAbandonedRuns() {
+        rosterSyncRunRepository
+                .findByStatus(RosterSyncStatus.RUNNING)
+                .forEach(run -> fail(run, new IllegalStateException("Roster sync abandoned on restart")));
+    }
+
+    /**
+     * Gets the most recent roster sync runs along with p50/p95 stage durations of the successful ones.
+     *
+     * @return RosterSyncRunSummary
+     */
+    public RosterSyncRunSummary getSummary() {
+        final List<RosterSyncRun> runs = rosterSyncRunRepository.findTop50ByOrderByStartedAtDesc();
+        final List<RosterSyncRun> succeeded = runs
+                .stream()
+                .filter(run -> run.getStatus() == RosterSyncStatus.SUCCEEDED)
+                .collect(Collectors.toList());
+        final RosterSyncRunSummary summary = new RosterSyncRunSummary();
+        summary.setRuns(runs);
+        summary.setFetchMillisP50(percentile(succeeded, RosterSyncRun::getFetchMillis, P50));
+        summary.setFetchMillisP95(percentile(succeeded, RosterSyncRun::getFetchMillis, P95));
+        summary.setMapMillisP50(percentile(succeeded, RosterSyncRun::getMapMillis, P50));
+        summary.setMapMillisP95(percentile(succeeded, RosterSyncRun::getMapMillis, P95));
+        summary.setPersistMillisP50(percentile(succeeded, RosterSyncRun::getPersistMillis, P50));
+        summary.setPersistMillisP95(percentile(succeeded, RosterSyncRun::getPersistMillis, P95));
+        return summary;
+    }
+
+    /**
+     * Nearest-rank percentile of a run duration.
+     *
+     * @param runs RosterSyncRun
+     * @param duration duration to be measured
+     * @param percentile percentile (1-100)
+     * @return duration at the given percentile, or 0 if there are no runs
+     */
+    private static long percentile(final List<RosterSyncRun> runs, final ToLongFunction<RosterSyncRun> duration,
+                                   final int percentile) {
+        if (runs.isEmpty()) {
+            return 0;
+        }
+        final long[] values = runs.stream().mapToLong(duration).sorted().toArray();
+        final int rank = (int) Math.ceil(percentile / (double) CommonConstants.ONE_HUNDRED * values.length);
+        return values[Math.max(rank, 1) - 1];
+    }
+
+}
@@ -0,0 +1,323 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.bsmichael.rostermanagement.model.Person;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberSyncState;
+import org.eaa690.aerie.model.RosterSyncResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Staged roster import for a single sync run.  A fetch stage feeds roster records into a bounded queue, a pool of
+ * mapping workers converts them to members and compares content hashes, and the calling thread writes added or
+ * changed members in chunks.  Bounded queues between the stages provide backpressure, and only the calling thread
+ * touches the database.
+ */
+public class RosterSyncPipeline {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RosterSyncPipeline.class);
+
+    /**
+     * Marks the end of the roster feed on the input queue.
+     */
+    private static final Person END_OF_FEED = new Person();
+
+    /**
+     * Marks a finished mapping worker on the output queue.
+     */
+    private static final Member WORKER_DONE = new Member();
+
+    /**
+     * Seconds to wait for stage threads to stop.
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * MemberMapper.
+     */
+    private final MemberMapper memberMapper;
+
+    /**
+     * MemberBatchWriter.
+     */
+    private final MemberBatchWriter memberBatchWriter;
+
+    /**
+     * Existing members keyed by roster ID.
+     */
+    private final Map<Long, MemberSyncState> existingMembers;
+
+    /**
+     * Notified of each member once written, with its previous sync state (null for new members).
+     */
+    private final BiConsumer<MemberSyncState, Member> savedListener;
+
+    /**
+     * Runs the write of each chunk together with its listener notifications.
+     */
+    private final Consumer<Runnable> chunkWriteGuard;
+
+    /**
+     * Number of mapping workers.
+     */
+    private final int workerCount;
+
+    /**
+     * Number of members written per chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * Roster IDs seen in the feed.
+     */
+    private final Set<Long> feedRosterIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Sync counts.
+     */
+    private final RosterSyncResult result = new RosterSyncResult();
+
+    /**
+     * Whether the whole feed was read.
+     */
+    private volatile boolean feedComplete;
+
+    /**
+     * Time spent mapping, summed across workers.
+     */
+    private final LongAdder mapNanos = new LongAdder();
+
+    /**
+     * Time spent writing.
+     */
+    private final LongAdder persistNanos = new LongAdder();
+
+    /**
+     * Initializes an instance of <code>RosterSyncPipeline</code>.
+     *
+     * @param mapper MemberMapper
+     * @param writer MemberBatchWriter
+     * @param existing sync state of existing members keyed by roster ID
+     * @param listener notified, on the calling thread, of each member once written
+     * @param guard runs the write of each chunk together with its listener notifications
+     * @param workers number of mapping workers
+     * @param chunk number of members written per chunk
+     */
+    public RosterSyncPipeline(final MemberMapper mapper,
+                              final MemberBatchWriter writer,
+                              final Map<Long, MemberSyncState> existing,
+                              final BiConsumer<MemberSyncState, Member> listener,
+                              final Consumer<Runnable> guard,
+                              final int workers,
+                              final int chunk) {
+        memberMapper = mapper;
+        memberBatchWriter = writer;
+        existingMembers = existing;
+        savedListener = listener;
+        chunkWriteGuard = guard;
+        workerCount = Math.max(1, workers);
+        chunkSize = Math.max(1, chunk);
+    }
+
+    /**
+     * Runs the pipeline over the provided roster records.
+     *
+     * @param persons roster records
+     * @return RosterSyncResult
+     * @throws InterruptedException when interrupted while waiting on a stage
+     */
+    public RosterSyncResult run(final Iterator<Person> persons) throws InterruptedException {
+        final int queueCapacity = chunkSize * workerCount;
+        final BlockingQueue<Person> input = new ArrayBlockingQueue<>(queueCapacity);
+        final BlockingQueue<Member> output = new ArrayBlockingQueue<>(queueCapacity);
+        final ExecutorService executor = Executors.newFixedThreadPool(workerCount + 1,
+                new ThreadFactoryBuilder().setNameFormat("roster-sync-%d").setDaemon(true).build());
+        try {
+            executor.execute(() -> fetch(persons, input));
+            for (int i = 0; i < workerCount; i++) {
+                executor.execute(() -> map(input, output));
+            }
+            write(output);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        result.setMapMillis(TimeUnit.NANOSECONDS.toMillis(mapNanos.sum()));
+        result.setPersistMillis(TimeUnit.NANOSECONDS.toMillis(persistNanos.sum()));
+        return result;
+    }
+
+    /**
+     * Gets the roster IDs seen in the feed.
+     *
+     * @return roster IDs
+     */
+    public Set<Long> getFeedRosterIds() {
+        return feedRosterIds;
+    }
+
+    /**
+     * Whether the whole feed was read.  Removals must not be applied from a partial feed.
+     *
+     * @return true if the feed was read to the end
+     */
+    public boolean isFeedComplete() {
+        return feedComplete;
+    }
+
+    /**
+     * Fetch stage: copies roster records onto the input queue, then signals each worker to stop.
+     *
+     * @param persons roster records
+     * @param input input queue
+     */
+    private void fetch(final Iterator<Person> persons, final BlockingQueue<Person> input) {
+        try {
+            try {
+                while (persons.hasNext()) {
+                    input.put(persons.next());
+                }
+                feedComplete = true;
+            } catch (RuntimeException e) {
+                LOGGER.error("Error reading roster feed", e);
+            }
+            for (int i = 0; i < workerCount; i++) {
+                input.put(END_OF_FEED);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Map stage: converts roster records to members and forwards those that were added or changed.
+     *
+     * @param input input queue
+     * @param output output queue
+     */
+    private void map(final BlockingQueue<Person> input, final BlockingQueue<Member> output) {
+        try {
+            for (Person person = input.take(); person != END_OF_FEED; person = input.take()) {
+                final long start = System.nanoTime();
+                Member member = null;
+                try {
+                    member = diff(memberMapper.toMember(person));
+                } catch (RuntimeException e) {
+                    LOGGER.error("Error mapping roster record", e);
+                    result.incrementFailed();
+                }
+                mapNanos.add(System.nanoTime() - start);
+                if (member != null) {
+                    output.put(member);
+                }
+            }
+            output.put(WORKER_DONE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write stage: saves added or changed members in chunks until every worker has finished.
+     *
+     * @param output output queue
+     * @throws InterruptedException when interrupted while waiting on the map stage
+     */
+    private void write(final BlockingQueue<Member> output) throws InterruptedException {
+        final List<Member> chunk = new ArrayList<>(chunkSize);
+        int finishedWorkers = 0;
+        while (finishedWorkers < workerCount) {
+            final Member member = output.take();
+            if (member == WORKER_DONE) {
+                finishedWorkers++;
+                continue;
+            }
+            chunk.add(member);
+            if (chunk.size() >= chunkSize) {
+                save(chunk);
+                chunk.clear();
+            }
+        }
+        save(chunk);
+    }
+
+    /**
+     * Saves a chunk of members.
+     *
+     * @param chunk members
+     */
+    private void save(final List<Member> chunk) {
+        chunkWriteGuard.accept(() -> {
+            final long start = System.nanoTime();
+            memberBatchWriter.saveAll(chunk);
+            persistNanos.add(System.nanoTime() - start);
+            chunk.forEach(member -> savedListener.accept(existingMembers.get(member.getRosterId()), member));
+        });
+    }
+
+    /**
+     * Compares a mapped member with its existing record.
+     *
+     * @param member mapped member
+     * @return member to be written, or null when unchanged
+     */
+    private Member diff(final Member member) {
+        if (member.getRosterId() == null) {
+            throw new IllegalStateException("Roster record has no roster ID");
+        }
+        feedRosterIds.add(member.getRosterId());
+        final String contentHash = member.calculateContentHash();
+        final MemberSyncState existing = existingMembers.get(member.getRosterId());
+        if (existing != null && !existing.isTombstoned() && contentHash.equals(existing.getContentHash())) {
+            result.incrementUnchanged();
+            return null;
+        }
+        if (existing == null) {
+            member.setCreatedAt(new Date());
+            result.incrementAdded();
+        } else {
+            member.setId(existing.getId());
+            member.setCreatedAt(existing.getCreatedAt());
+            result.incrementChanged();
+        }
+        member.setContentHash(contentHash);
+        return member;
+    }
+
+}
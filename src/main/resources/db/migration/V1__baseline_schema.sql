@@ -0,0 +1,101 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+-- Schema as previously created by hibernate ddl-auto=update.
+
+CREATE TABLE member (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    roster_id bigint,
+    rfid varchar(255),
+    slack varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    nickname varchar(255),
+    username varchar(255),
+    spouse varchar(255),
+    gender integer,
+    member_type integer,
+    status integer,
+    web_admin_access integer,
+    address_line1 varchar(255),
+    address_line2 varchar(255),
+    city varchar(255),
+    state integer,
+    zip_code varchar(255),
+    country integer,
+    birth_date varchar(255),
+    joined varchar(255),
+    other_info varchar(255),
+    family varchar(255),
+    num_of_family bigint,
+    additional_info varchar(255),
+    home_phone varchar(255),
+    ratings varchar(255),
+    aircraft_owned varchar(255),
+    aircraft_project varchar(255),
+    aircraft_built varchar(255),
+    imc_club bit not null,
+    vmc_club bit not null,
+    ye_pilot bit not null,
+    ye_volunteer bit not null,
+    eagle_pilot bit not null,
+    eagle_volunteer bit not null,
+    eaa_expiration varchar(255),
+    youth_protection varchar(255),
+    background_check varchar(255),
+    eaa_number varchar(255),
+    email varchar(255),
+    cell_phone varchar(255),
+    cell_phone_provider varchar(255),
+    expiration datetime(6),
+    email_enabled bit not null,
+    sms_enabled bit not null,
+    slack_enabled bit not null,
+    primary key (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE property (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    k varchar(100),
+    v varchar(1000),
+    primary key (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE queued_message (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    message_type integer,
+    recipient_address varchar(255),
+    template_id_key varchar(255),
+    subject_key varchar(255),
+    member_id bigint,
+    body varchar(255),
+    primary key (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE weather_product (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    k varchar(100),
+    v varchar(4000),
+    primary key (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,88 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+-- Roster sync state, tombstones and Member lookup indexes.
+
+ALTER TABLE member
+    ADD COLUMN content_hash varchar(64),
+    ADD COLUMN tombstoned bit not null DEFAULT 0,
+    ADD COLUMN tombstoned_at datetime(6);
+
+UPDATE member SET rfid = NULL WHERE rfid = '';
+
+-- Duplicates left by overlapping roster syncs and unchecked RFID assignments would make the unique constraints
+-- below fail.  They are resolved first and every row changed is recorded in member_v2_duplicate for review.
+-- For each roster_id, the row holding an RFID (then the highest ID) is kept and the others are deleted, with their
+-- queued messages moved to the kept row.  For each RFID, the highest ID keeps it and the others have it cleared.
+
+CREATE TABLE member_v2_duplicate (
+    reason varchar(16) not null,
+    id bigint not null,
+    kept_id bigint not null,
+    roster_id bigint,
+    rfid varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255),
+    primary key (reason, id)
+) ENGINE=InnoDB;
+
+INSERT INTO member_v2_duplicate (reason, id, kept_id, roster_id, rfid, first_name, last_name, email)
+SELECT 'roster_id', m.id, k.id, m.roster_id, m.rfid, m.first_name, m.last_name, m.email
+FROM member m
+JOIN member k ON k.roster_id = m.roster_id AND (k.rfid IS NOT NULL, k.id) > (m.rfid IS NOT NULL, m.id)
+WHERE NOT EXISTS (SELECT 1 FROM member b
+                  WHERE b.roster_id = k.roster_id AND (b.rfid IS NOT NULL, b.id) > (k.rfid IS NOT NULL, k.id));
+
+UPDATE queued_message q
+JOIN member_v2_duplicate d ON d.reason = 'roster_id' AND d.id = q.member_id
+SET q.member_id = d.kept_id;
+
+DELETE m FROM member m
+JOIN member_v2_duplicate d ON d.reason = 'roster_id' AND d.id = m.id;
+
+INSERT INTO member_v2_duplicate (reason, id, kept_id, roster_id, rfid, first_name, last_name, email)
+SELECT 'rfid', m.id, k.id, m.roster_id, m.rfid, m.first_name, m.last_name, m.email
+FROM member m
+JOIN member k ON k.rfid = m.rfid AND k.id > m.id
+WHERE NOT EXISTS (SELECT 1 FROM member b WHERE b.rfid = k.rfid AND b.id > k.id);
+
+UPDATE member m
+JOIN member_v2_duplicate d ON d.reason = 'rfid' AND d.id = m.id
+SET m.rfid = NULL;
+
+ALTER TABLE member
+    ADD CONSTRAINT uk_member_roster_id UNIQUE (roster_id),
+    ADD CONSTRAINT uk_member_rfid UNIQUE (rfid),
+    ADD INDEX idx_member_email (email),
+    ADD INDEX idx_member_tombstoned (tombstoned);
+
+-- Entity IDs are allocated from a pooled sequence table instead of AUTO_INCREMENT, which allows JDBC batching.
+
+ALTER TABLE member MODIFY id bigint not null;
+ALTER TABLE property MODIFY id bigint not null;
+ALTER TABLE queued_message MODIFY id bigint not null;
+ALTER TABLE weather_product MODIFY id bigint not null;
+
+CREATE TABLE aerie_id_seq (
+    next_val bigint
+) ENGINE=InnoDB;
+
+INSERT INTO aerie_id_seq (next_val) SELECT GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM member),
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM property),
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM queued_message),
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM weather_product));
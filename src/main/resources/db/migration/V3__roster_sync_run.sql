@@ -0,0 +1,38 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+
+-- History of roster sync runs with per-stage timings.
+
+CREATE TABLE roster_sync_run (
+    id bigint not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    started_at datetime(6),
+    finished_at datetime(6),
+    status varchar(255),
+    fetch_millis bigint not null,
+    map_millis bigint not null,
+    persist_millis bigint not null,
+    records bigint not null,
+    added bigint not null,
+    changed bigint not null,
+    unchanged bigint not null,
+    deleted bigint not null,
+    failed bigint not null,
+    error_message varchar(1000),
+    primary key (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,29 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+
+-- Persisted membership report snapshot, and the expiration index used to roll it forward.
+
+CREATE TABLE membership_report_snapshot (
+    id bigint not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    as_of datetime(6),
+    report varchar(4000),
+    primary key (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_member_expiration ON member (expiration);
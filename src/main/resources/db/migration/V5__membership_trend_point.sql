@@ -0,0 +1,30 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+
+-- Daily membership report counters with weekly and monthly rollups.
+
+CREATE TABLE membership_trend_point (
+    id bigint not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    granularity varchar(10),
+    period_start datetime(6),
+    metric varchar(100),
+    total bigint not null,
+    primary key (id),
+    constraint uk_membership_trend_point unique (granularity, period_start, metric)
+) ENGINE=InnoDB;
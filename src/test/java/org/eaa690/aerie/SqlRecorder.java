@@ -0,0 +1,67 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares on the calling thread while an action runs, so tests can inspect the statements
+ * repository methods generate.
+ */
+public class SqlRecorder implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Statements recorded on the current thread, or null when not recording.
+     */
+    private final transient ThreadLocal<List<String>> recorded = new ThreadLocal<>();
+
+    /**
+     * Runs an action, recording the SQL it prepares.
+     *
+     * @param action action
+     * @return SQL prepared, in order
+     */
+    public List<String> record(final Runnable action) {
+        final List<String> statements = new ArrayList<>();
+        recorded.set(statements);
+        try {
+            action.run();
+        } finally {
+            recorded.remove();
+        }
+        return statements;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String inspect(final String sql) {
+        final List<String> statements = recorded.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+}
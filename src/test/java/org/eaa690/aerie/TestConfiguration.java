@@ -16,6 +16,8 @@
 
 package org.eaa690.aerie;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -32,4 +34,25 @@ public class TestConfiguration {
         return new TestContext();
     }
 
+    /**
+     * SqlRecorder.
+     *
+     * @return SqlRecorder
+     */
+    @Bean
+    public SqlRecorder sqlRecorder() {
+        return new SqlRecorder();
+    }
+
+    /**
+     * Registers the SqlRecorder with Hibernate.
+     *
+     * @param sqlRecorder SqlRecorder
+     * @return HibernatePropertiesCustomizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlRecorderCustomizer(final SqlRecorder sqlRecorder) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlRecorder);
+    }
+
 }
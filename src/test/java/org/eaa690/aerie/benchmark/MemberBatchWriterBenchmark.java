@@ -0,0 +1,297 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.eaa690.aerie.TestDataFactory;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.service.MemberBatchWriter;
+import org.eaa690.aerie.service.PropertyService;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares writing a roster of new members through MemberBatchWriter (one transaction and one JDBC batch per chunk)
+ * against the row-by-row path it replaced: per member, a findByRosterId lookup in its own read-only transaction,
+ * then a save in another, with IDs from an AUTO_INCREMENT column so every insert runs on its own.  Both run through
+ * Hibernate configured as in application.yaml, against a RoundTripDataSource that charges a fixed latency per
+ * statement, batch and commit, so the results reflect the number of round trips to the database rather than the
+ * speed of a particular MySQL instance.  The round trips per member are logged after each iteration.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ *     -Dexec.args=MemberBatchWriterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MemberBatchWriterBenchmark {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemberBatchWriterBenchmark.class);
+
+    /**
+     * Lookup RosterService made before saving each member, as MemberRepository.findByRosterId then was.
+     */
+    private static final String FIND_BY_ROSTER_ID = "SELECT m FROM Member m WHERE m.rosterId = :rosterId";
+
+    /**
+     * Number of members written.
+     */
+    @Param({"1000", "10000", "100000"})
+    private int memberCount;
+
+    /**
+     * Latency of one database round trip, in microseconds.
+     */
+    @Param({"100"})
+    private long roundTripMicros;
+
+    /**
+     * Simulated database.
+     */
+    private RoundTripDataSource dataSource;
+
+    /**
+     * Hibernate SessionFactory.
+     */
+    private SessionFactory sessionFactory;
+
+    /**
+     * Hibernate SessionFactory mapping IDs as AUTO_INCREMENT columns.
+     */
+    private SessionFactory identitySessionFactory;
+
+    /**
+     * Shared EntityManager bound to the current transaction.
+     */
+    private EntityManager entityManager;
+
+    /**
+     * TransactionTemplate.
+     */
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Shared EntityManager of the AUTO_INCREMENT mapping.
+     */
+    private EntityManager identityEntityManager;
+
+    /**
+     * TransactionTemplate of the AUTO_INCREMENT mapping.
+     */
+    private TransactionTemplate identityTransactionTemplate;
+
+    /**
+     * Read-only TransactionTemplate of the AUTO_INCREMENT mapping, as Spring Data runs query methods in.
+     */
+    private TransactionTemplate identityReadOnlyTransactionTemplate;
+
+    /**
+     * MemberBatchWriter, with the default chunk size of 50.
+     */
+    private MemberBatchWriter memberBatchWriter;
+
+    /**
+     * Member whose fields every written member copies.
+     */
+    private Member template;
+
+    /**
+     * Members to be written by the next invocation.
+     */
+    private List<Member> members;
+
+    /**
+     * Round trips made before the current invocation.
+     */
+    private long roundTripsBefore;
+
+    /**
+     * Builds Hibernate, the transaction managers and the MemberBatchWriter.  Logging other than the benchmark's own
+     * is limited to warnings, as Hibernate's debug logging would otherwise dominate the results.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        ((ch.qos.logback.classic.Logger) LOGGER).setLevel(ch.qos.logback.classic.Level.INFO);
+        dataSource = new RoundTripDataSource(roundTripMicros);
+        sessionFactory = buildSessionFactory(new MetadataSources(buildServiceRegistry()));
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(sessionFactory);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(sessionFactory));
+        identitySessionFactory = buildSessionFactory(new MetadataSources(buildServiceRegistry())
+                .addResource("benchmark/identity-orm.xml"));
+        identityEntityManager = SharedEntityManagerCreator.createSharedEntityManager(identitySessionFactory);
+        final JpaTransactionManager identityTransactionManager = new JpaTransactionManager(identitySessionFactory);
+        identityTransactionTemplate = new TransactionTemplate(identityTransactionManager);
+        identityReadOnlyTransactionTemplate = new TransactionTemplate(identityTransactionManager);
+        identityReadOnlyTransactionTemplate.setReadOnly(true);
+        memberBatchWriter = new MemberBatchWriter();
+        memberBatchWriter.setEntityManager(entityManager);
+        memberBatchWriter.setTransactionTemplate(transactionTemplate);
+        memberBatchWriter.setPropertyService(new PropertyService() {
+            @Override
+            public int getInt(final String key, final int defaultValue) {
+                return defaultValue;
+            }
+        });
+        template = TestDataFactory.getMember();
+    }
+
+    /**
+     * Closes Hibernate.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        identitySessionFactory.close();
+    }
+
+    /**
+     * Builds a service registry with the Hibernate settings of application.yaml, over the simulated database.  The
+     * JDBC driver is not asked for its metadata, so its support for generated keys is stated as MySQL reports it.
+     *
+     * @return StandardServiceRegistry
+     */
+    private StandardServiceRegistry buildServiceRegistry() {
+        return new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.DIALECT, "org.hibernate.dialect.MySQL57Dialect")
+                .applySetting("hibernate.temp.use_jdbc_metadata_defaults", "false")
+                .applySetting(AvailableSettings.USE_GET_GENERATED_KEYS, "true")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .applySetting(AvailableSettings.ORDER_INSERTS, "true")
+                .applySetting(AvailableSettings.ORDER_UPDATES, "true")
+                .build();
+    }
+
+    /**
+     * Builds a SessionFactory mapping Member.
+     *
+     * @param sources metadata sources
+     * @return SessionFactory
+     */
+    private static SessionFactory buildSessionFactory(final MetadataSources sources) {
+        return sources
+                .addAnnotatedClass(Member.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    /**
+     * Builds the new members written by the next invocation.
+     */
+    @Setup(Level.Invocation)
+    public void buildMembers() {
+        members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            final Member member = new Member();
+            member.setRosterId((long) i);
+            member.setFirstName(template.getFirstName());
+            member.setLastName(template.getLastName());
+            member.setAddressLine1(template.getAddressLine1());
+            member.setCity(template.getCity());
+            member.setState(template.getState());
+            member.setCountry(template.getCountry());
+            member.setEaaNumber(template.getEaaNumber());
+            member.setMemberType(template.getMemberType());
+            member.setStatus(template.getStatus());
+            member.setGender(template.getGender());
+            member.setWebAdminAccess(template.getWebAdminAccess());
+            member.setCreatedAt(new Date());
+            member.setUpdatedAt(member.getCreatedAt());
+            member.setContentHash(member.calculateContentHash());
+            members.add(member);
+        }
+        roundTripsBefore = dataSource.getRoundTrips();
+    }
+
+    /**
+     * Logs the round trips per member made by the last invocation of the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void logRoundTrips() {
+        LOGGER.info("{} round trips per member",
+                String.format("%.3f", (double) (dataSource.getRoundTrips() - roundTripsBefore) / memberCount));
+    }
+
+    /**
+     * Writes the members in chunks through MemberBatchWriter.
+     */
+    @Benchmark
+    public void batchWriter() {
+        memberBatchWriter.saveAll(members);
+    }
+
+    /**
+     * Writes the members one at a time, as RosterService.update() did: a findByRosterId lookup in its own read-only
+     * transaction, then MemberRepository.save() in another, inserting under AUTO_INCREMENT IDs.
+     */
+    @Benchmark
+    public void rowByRow() {
+        for (final Member member : members) {
+            identityReadOnlyTransactionTemplate.execute(status -> identityEntityManager
+                    .createQuery(FIND_BY_ROSTER_ID, Member.class)
+                    .setParameter("rosterId", member.getRosterId())
+                    .getResultStream()
+                    .findFirst())
+                    .ifPresent(value -> member.setId(value.getId()));
+            identityTransactionTemplate.executeWithoutResult(status -> {
+                if (member.getId() == null) {
+                    identityEntityManager.persist(member);
+                } else {
+                    identityEntityManager.merge(member);
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.eaa690.aerie.TestDataFactory;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberData;
+import org.eaa690.aerie.model.MemberDataRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares building the all-rfid response from fully populated Member entities collected into a list against
+ * streaming MemberDataRow projections through a JsonGenerator.  Both sides create their per-row objects from a
+ * template, copying each string column as a JDBC driver would decode it, so the difference reflects entity hydration
+ * versus projection allocation.  Database I/O is not included.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ *     -Dexec.args="MemberDataBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberDataBenchmark {
+
+    /**
+     * Number of members on the roster.
+     */
+    @Param({"1000"})
+    private int memberCount;
+
+    /**
+     * ObjectMapper.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * MemberData writer that does not flush after each value, as MemberExportService uses.
+     */
+    private ObjectWriter memberDataWriter;
+
+    /**
+     * Member whose columns every row is read from.
+     */
+    private Member template;
+
+    /**
+     * Builds the ObjectMapper, the MemberData writer and the template Member.
+     */
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        memberDataWriter = objectMapper.writerFor(MemberData.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        template = TestDataFactory.getMember();
+        template.setNickname(template.getFirstName());
+        template.setUsername(template.getEaaNumber());
+        template.setSpouse(template.getLastName());
+        template.setZipCode("30043");
+        template.setBirthDate("1970-01-01");
+        template.setJoined("2000-01-01");
+        template.setHomePhone("7705551212");
+        template.setCellPhone("7705551212");
+        template.setEmail(template.getEaaNumber() + "@example.com");
+        template.setEaaExpiration("2030-01-01");
+        template.setExpiration(new Date());
+    }
+
+    /**
+     * Loads whole Member entities, maps them to a list of MemberData and serializes the list.
+     *
+     * @throws IOException when serialization fails
+     */
+    @Benchmark
+    public void entityList() throws IOException {
+        final List<MemberData> records = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            final Member member = hydrate(i);
+            final MemberData record = new MemberData();
+            record.setId(member.getId());
+            record.setExpirationDate(member.getExpiration());
+            record.setRfid(member.getRfid());
+            record.setName(member.getFirstName() + " " + member.getLastName());
+            records.add(record);
+        }
+        objectMapper.writeValue(OutputStream.nullOutputStream(), records);
+    }
+
+    /**
+     * Streams MemberDataRow projections through a JsonGenerator.
+     *
+     * @throws IOException when serialization fails
+     */
+    @Benchmark
+    public void projectionStream() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            generator.writeStartArray();
+            for (int i = 0; i < memberCount; i++) {
+                final MemberDataRow row = new MemberDataRow((long) i, column(template.getFirstName()),
+                        column(template.getLastName()), new Date(template.getExpiration().getTime()), "RFID" + i);
+                memberDataWriter.writeValue(generator, row.toMemberData());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Builds a Member the way Hibernate hydrates one row of the MEMBER table.
+     *
+     * @param id member ID
+     * @return Member
+     */
+    private Member hydrate(final int id) {
+        final Member member = new Member();
+        member.setId((long) id);
+        member.setRosterId((long) id);
+        member.setRfid("RFID" + id);
+        member.setFirstName(column(template.getFirstName()));
+        member.setLastName(column(template.getLastName()));
+        member.setNickname(column(template.getNickname()));
+        member.setUsername(column(template.getUsername()));
+        member.setSpouse(column(template.getSpouse()));
+        member.setGender(template.getGender());
+        member.setMemberType(template.getMemberType());
+        member.setStatus(template.getStatus());
+        member.setWebAdminAccess(template.getWebAdminAccess());
+        member.setAddressLine1(column(template.getAddressLine1()));
+        member.setCity(column(template.getCity()));
+        member.setState(template.getState());
+        member.setZipCode(column(template.getZipCode()));
+        member.setCountry(template.getCountry());
+        member.setBirthDate(column(template.getBirthDate()));
+        member.setJoined(column(template.getJoined()));
+        member.setHomePhone(column(template.getHomePhone()));
+        member.setEaaExpiration(column(template.getEaaExpiration()));
+        member.setEaaNumber(column(template.getEaaNumber()));
+        member.setEmail(column(template.getEmail()));
+        member.setCellPhone(column(template.getCellPhone()));
+        member.setExpiration(new Date(template.getExpiration().getTime()));
+        return member;
+    }
+
+    /**
+     * Copies a string column as a JDBC driver would decode it.
+     *
+     * @param value column value
+     * @return a new String
+     */
+    private static String column(final String value) {
+        return new String(value.toCharArray());
+    }
+
+}
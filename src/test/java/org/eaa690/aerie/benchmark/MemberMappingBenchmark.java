@@ -0,0 +1,102 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.bsmichael.rostermanagement.model.Person;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import org.eaa690.aerie.TestDataFactory;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.service.MemberMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares mapping a Person to a Member through the shared MemberMapper against registering a class map and
+ * fetching a MapperFacade on every call.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ *     -Dexec.args=MemberMappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberMappingBenchmark {
+
+    /**
+     * Mapper registered once.
+     */
+    private MemberMapper memberMapper;
+
+    /**
+     * Mapper factory shared across calls, as RosterService used it.
+     */
+    private MapperFactory mapperFactory;
+
+    /**
+     * Person to be mapped.
+     */
+    private Person person;
+
+    /**
+     * Builds the mappers and a Person to be mapped.
+     */
+    @Setup
+    public void setup() {
+        memberMapper = new MemberMapper();
+        mapperFactory = new DefaultMapperFactory.Builder().build();
+        final Member member = TestDataFactory.getMember();
+        member.setRosterId(1L);
+        person = memberMapper.toPerson(member);
+    }
+
+    /**
+     * Maps with the class map registered once.
+     *
+     * @return Member
+     */
+    @Benchmark
+    public Member cachedMapper() {
+        return memberMapper.toMember(person);
+    }
+
+    /**
+     * Maps with a class map and MapperFacade requested on every call.
+     *
+     * @return Member
+     */
+    @Benchmark
+    public Member perCallMapper() {
+        mapperFactory.classMap(Person.class, Member.class).byDefault();
+        return mapperFactory.getMapperFacade().map(person, Member.class);
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.benchmark;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import io.github.bsmichael.rostermanagement.model.MemberType;
+import io.github.bsmichael.rostermanagement.model.Status;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.service.MembershipReportAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares building a MembershipReport with MembershipReportAggregator against the previous approach of one
+ * stream pass per report bucket.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ *     -Dexec.args=MembershipReportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MembershipReportBenchmark {
+
+    /**
+     * Number of members.
+     */
+    @Param({"100000"})
+    private int memberCount;
+
+    /**
+     * Members to be reported on.
+     */
+    private List<Member> members;
+
+    /**
+     * Builds members spread across member types, statuses and expirations from a year ago to a year out.
+     */
+    @Setup
+    public void setup() {
+        final Random random = new Random(690);
+        final MemberType[] memberTypes = MemberType.values();
+        final Status[] statuses = Status.values();
+        final Instant now = Instant.now();
+        members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            final Member member = new Member();
+            member.setMemberType(memberTypes[random.nextInt(memberTypes.length)]);
+            member.setStatus(statuses[random.nextInt(statuses.length)]);
+            member.setExpiration(Date.from(now.plus(random.nextInt(730) - 365, ChronoUnit.DAYS)));
+            member.setNumOfFamily((long) random.nextInt(5));
+            members.add(member);
+        }
+    }
+
+    /**
+     * Builds the report in a single pass.
+     *
+     * @return MembershipReport
+     */
+    @Benchmark
+    public MembershipReport singlePass() {
+        final MembershipReportAggregator aggregator = new MembershipReportAggregator(new Date());
+        members.forEach(aggregator::add);
+        return aggregator.toReport();
+    }
+
+    /**
+     * Builds the report with one stream pass per bucket, as RosterService used to.
+     *
+     * @return MembershipReport
+     */
+    @Benchmark
+    public MembershipReport multiPass() {
+        final Date today = new Date();
+        final Date thirtyDays = Date.from(Instant.now().plus(30, ChronoUnit.DAYS));
+        final Date sevenDays = Date.from(Instant.now().plus(7, ChronoUnit.DAYS));
+        final Predicate<Member> active = m -> Status.ACTIVE == m.getStatus() && today.before(m.getExpiration());
+        final Predicate<Member> expired = m -> Status.ACTIVE == m.getStatus() && today.after(m.getExpiration());
+        final Predicate<Member> thirty = active.and(m -> thirtyDays.after(m.getExpiration()))
+                .and(m -> sevenDays.before(m.getExpiration()));
+        final Predicate<Member> seven = active.and(m -> sevenDays.after(m.getExpiration()));
+        final MembershipReport report = new MembershipReport();
+        report.setRegularMemberCount(count(MemberType.Regular, active));
+        report.setFamilyMembershipCount(count(MemberType.Family, active));
+        report.setFamilyMemberCount(sumFamily(active));
+        report.setStudentMemberCount(count(MemberType.Student, active));
+        report.setRegularMemberExpiredCount(count(MemberType.Regular, expired));
+        report.setFamilyMembershipExpiredCount(count(MemberType.Family, expired));
+        report.setFamilyMemberExpiredCount(sumFamily(expired));
+        report.setStudentMemberExpiredCount(count(MemberType.Student, expired));
+        report.setRegularMemberWillExpire30DaysCount(count(MemberType.Regular, thirty));
+        report.setFamilyMembershipWillExpire30DaysCount(count(MemberType.Family, thirty));
+        report.setFamilyMemberWillExpire30DaysCount(sumFamily(thirty));
+        report.setStudentMemberWillExpire30DaysCount(count(MemberType.Student, thirty));
+        report.setRegularMemberWillExpire7DaysCount(count(MemberType.Regular, seven));
+        report.setFamilyMembershipWillExpire7DaysCount(count(MemberType.Family, seven));
+        report.setFamilyMemberWillExpire7DaysCount(sumFamily(seven));
+        report.setStudentMemberWillExpire7DaysCount(count(MemberType.Student, seven));
+        report.setLifetimeMemberCount(count(MemberType.Lifetime, m -> true));
+        report.setHonoraryMemberCount(count(MemberType.Honorary, m -> true));
+        report.setProspectMemberCount(count(MemberType.Prospect, m -> true));
+        report.setNonMemberCount(count(MemberType.NonMember, m -> true));
+        return report;
+    }
+
+    /**
+     * Counts members of a type matching a predicate in one stream pass.
+     *
+     * @param memberType MemberType
+     * @param predicate predicate
+     * @return count
+     */
+    private long count(final MemberType memberType, final Predicate<Member> predicate) {
+        return members.stream().filter(m -> memberType == m.getMemberType()).filter(predicate).count();
+    }
+
+    /**
+     * Sums "num of family" of family memberships matching a predicate in one stream pass.
+     *
+     * @param predicate predicate
+     * @return sum
+     */
+    private long sumFamily(final Predicate<Member> predicate) {
+        return members
+                .stream()
+                .filter(m -> MemberType.Family == m.getMemberType())
+                .filter(predicate)
+                .map(Member::getNumOfFamily)
+                .reduce(0L, Long::sum);
+    }
+
+}
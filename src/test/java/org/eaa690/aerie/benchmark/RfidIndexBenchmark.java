@@ -0,0 +1,132 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.benchmark;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.github.bsmichael.rostermanagement.model.Status;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.RfidIndexEntry;
+import org.eaa690.aerie.service.RfidIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures badge lookups against the in-memory RfidIndex, for RFIDs that are and are not held by a member.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ *     -Dexec.args=RfidIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RfidIndexBenchmark {
+
+    /**
+     * Number of members.
+     */
+    @Param({"100000"})
+    private int memberCount;
+
+    /**
+     * Index under test.
+     */
+    private RfidIndex rfidIndex;
+
+    /**
+     * RFIDs held by members, in lower case to exercise normalization.
+     */
+    private String[] held;
+
+    /**
+     * RFIDs not held by any member.
+     */
+    private String[] unknown;
+
+    /**
+     * Next RFID to look up.
+     */
+    private int next;
+
+    /**
+     * Builds members with random ten digit hex RFIDs and loads them into the index.
+     */
+    @Setup
+    public void setup() {
+        final Random random = new Random(690);
+        final Instant now = Instant.now();
+        final List<Member> members = new ArrayList<>(memberCount);
+        held = new String[memberCount];
+        unknown = new String[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            final Member member = new Member();
+            member.setId((long) i);
+            member.setRfid(String.format("%010X", random.nextLong() & 0xFFFFFFFFFFL));
+            member.setStatus(Status.ACTIVE);
+            member.setExpiration(Date.from(now.plus(random.nextInt(730) - 365, ChronoUnit.DAYS)));
+            members.add(member);
+            held[i] = member.getRfid().toLowerCase();
+            unknown[i] = "X" + member.getRfid();
+        }
+        rfidIndex = new RfidIndex();
+        rfidIndex.load(members);
+    }
+
+    /**
+     * Looks up an RFID held by a member.
+     *
+     * @return RfidIndexEntry
+     */
+    @Benchmark
+    public Optional<RfidIndexEntry> hit() {
+        next = (next + 1) % memberCount;
+        return rfidIndex.lookup(held[next]);
+    }
+
+    /**
+     * Looks up an RFID not held by any member.
+     *
+     * @return RfidIndexEntry
+     */
+    @Benchmark
+    public Optional<RfidIndexEntry> miss() {
+        next = (next + 1) % memberCount;
+        return rfidIndex.lookup(unknown[next]);
+    }
+
+}
@@ -0,0 +1,376 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.eaa690.aerie.benchmark;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource standing in for MySQL in benchmarks.  Every statement execution, batch execution and commit counts as
+ * one round trip to the server and costs a fixed latency; everything else is free.  Queries of the ID sequence
+ * table and generated keys return a single row with an increasing value, which is enough for Hibernate's ID
+ * generators.  Every other query returns no rows, as a lookup of a member that is not yet stored would.
+ */
+public class RoundTripDataSource implements DataSource {
+
+    /**
+     * Amount the simulated ID sequence advances per query, matching the increment_size of aerie_id_seq.
+     */
+    private static final long SEQUENCE_INCREMENT = 50L;
+
+    /**
+     * Table backing the ID sequence.
+     */
+    private static final String SEQUENCE_TABLE = "aerie_id_seq";
+
+    /**
+     * Latency of one round trip, in nanoseconds.
+     */
+    private final long roundTripNanos;
+
+    /**
+     * Number of round trips made.
+     */
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    /**
+     * Next value handed out by a query.
+     */
+    private final AtomicLong nextValue = new AtomicLong(1);
+
+    /**
+     * Initializes an instance of <code>RoundTripDataSource</code>.
+     *
+     * @param latencyMicros latency of one round trip, in microseconds
+     */
+    public RoundTripDataSource(final long latencyMicros) {
+        roundTripNanos = latencyMicros * 1000L;
+    }
+
+    /**
+     * Gets the number of round trips made so far.
+     *
+     * @return round trips
+     */
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Connection getConnection() {
+        return proxy(Connection.class, this::onConnection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Connection getConnection(final String username, final String password) {
+        return getConnection();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setLogWriter(final PrintWriter out) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setLoginTimeout(final int seconds) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T unwrap(final Class<T> iface) {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) {
+        return false;
+    }
+
+    /**
+     * Handles a Connection call.
+     *
+     * @param method method called
+     * @param args arguments
+     * @return result
+     */
+    private Object onConnection(final Method method, final Object[] args) {
+        switch (method.getName()) {
+            case "prepareStatement":
+                return proxy(PreparedStatement.class, new StatementHandler((String) args[0]));
+            case "createStatement":
+                return proxy(PreparedStatement.class, new StatementHandler(null));
+            case "commit":
+                roundTrip();
+                return null;
+            case "getAutoCommit":
+                return Boolean.TRUE;
+            case "getTransactionIsolation":
+                return Connection.TRANSACTION_REPEATABLE_READ;
+            default:
+                return defaultValue(method.getReturnType());
+        }
+    }
+
+    /**
+     * Spends one round trip.
+     */
+    private void roundTrip() {
+        roundTrips.incrementAndGet();
+        final long deadline = System.nanoTime() + roundTripNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(deadline - System.nanoTime());
+        }
+    }
+
+    /**
+     * Handles the calls of one statement.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        /**
+         * SQL the statement was prepared with, or null.
+         */
+        private final String preparedSql;
+
+        /**
+         * Number of statements added to the current batch.
+         */
+        private int batched;
+
+        /**
+         * Initializes a StatementHandler.
+         *
+         * @param sql SQL the statement was prepared with, or null
+         */
+        StatementHandler(final String sql) {
+            preparedSql = sql;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object invoke(final Object target, final Method method, final Object[] args) {
+            switch (method.getName()) {
+                case "addBatch":
+                    batched++;
+                    return null;
+                case "clearBatch":
+                    batched = 0;
+                    return null;
+                case "executeBatch":
+                    roundTrip();
+                    final int[] counts = new int[batched];
+                    Arrays.fill(counts, 1);
+                    batched = 0;
+                    return counts;
+                case "executeUpdate":
+                    roundTrip();
+                    return 1;
+                case "execute":
+                    roundTrip();
+                    return Boolean.FALSE;
+                case "executeQuery":
+                    roundTrip();
+                    String sql = preparedSql;
+                    if (args != null && args.length > 0) {
+                        sql = (String) args[0];
+                    }
+                    if (sql.contains(SEQUENCE_TABLE)) {
+                        final long value = nextValue.getAndAdd(SEQUENCE_INCREMENT);
+                        return proxy(ResultSet.class, new ResultSetHandler(value, 1));
+                    }
+                    return proxy(ResultSet.class, new ResultSetHandler(0L, 0));
+                case "getGeneratedKeys":
+                    return proxy(ResultSet.class, new ResultSetHandler(nextValue.getAndIncrement(), 1));
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+
+    }
+
+    /**
+     * Handles the calls of a ResultSet whose rows all hold the same value in every column.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        /**
+         * Value of every column.
+         */
+        private final long value;
+
+        /**
+         * Number of rows.
+         */
+        private final int rows;
+
+        /**
+         * Number of rows read.
+         */
+        private final AtomicInteger rowsRead = new AtomicInteger();
+
+        /**
+         * Initializes a ResultSetHandler.
+         *
+         * @param columnValue value of every column
+         * @param rowCount number of rows
+         */
+        ResultSetHandler(final long columnValue, final int rowCount) {
+            value = columnValue;
+            rows = rowCount;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object invoke(final Object target, final Method method, final Object[] args) {
+            switch (method.getName()) {
+                case "next":
+                    return rowsRead.incrementAndGet() <= rows;
+                case "getLong":
+                    return value;
+                case "getInt":
+                    return (int) value;
+                case "getObject":
+                    return value;
+                case "wasNull":
+                    return Boolean.FALSE;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+
+    }
+
+    /**
+     * Creates a JDBC proxy.
+     *
+     * @param type JDBC interface
+     * @param handler call handler
+     * @param <T> JDBC interface
+     * @return proxy
+     */
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(RoundTripDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    /**
+     * Creates a JDBC proxy from a handler that does not need the proxy itself.
+     *
+     * @param type JDBC interface
+     * @param handler call handler
+     * @param <T> JDBC interface
+     * @return proxy
+     */
+    private static <T> T proxy(final Class<T> type, final CallHandler handler) {
+        return proxy(type, (target, method, args) -> handler.handle(method, args));
+    }
+
+    /**
+     * Gets the value returned by calls that are not simulated.
+     *
+     * @param type return type
+     * @return null, false or zero
+     */
+    private static Object defaultValue(final Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    /**
+     * Handles a call without the proxy it was made on.
+     */
+    @FunctionalInterface
+    private interface CallHandler {
+
+        /**
+         * Handles a call.
+         *
+         * @param method method called
+         * @param args arguments
+         * @return result
+         */
+        Object handle(Method method, Object[] args);
+
+    }
+
+}
@@ -16,9 +16,12 @@
 
 package org.eaa690.aerie.steps;
 
+import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.restassured.http.ContentType;
+import org.apache.http.HttpStatus;
 import org.eaa690.aerie.TestContext;
+import org.hamcrest.Matchers;
 
 /**
  * Reports test steps.
@@ -39,6 +42,23 @@ public class ReportsSteps extends BaseSteps {
         super(testContext);
     }
 
+    @When("^I request the general membership report again with its ETag$")
+    public void iRequestTheReportWithETag() {
+        final String eTag = testContext.getValidatableResponse().extract().header("ETag");
+        testContext.setValidatableResponse(requestSpecification()
+                .header("If-None-Match", eTag)
+                .when()
+                .get(REPORTS + "membershipreport")
+                .then());
+    }
+
+    @Then("^The report should not be modified$")
+    public void theReportShouldNotBeModified() {
+        testContext.getValidatableResponse()
+                .assertThat()
+                .statusCode(Matchers.equalTo(HttpStatus.SC_NOT_MODIFIED));
+    }
+
     @When("^I request the general (.*) report$")
     public void iRequestTheReport(String reportType) {
         String report;
@@ -56,4 +76,25 @@ public class ReportsSteps extends BaseSteps {
                 .then());
     }
 
+    @When("^I request the monthly membership trend$")
+    public void iRequestTheMonthlyTrend() {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .queryParam("granularity", "MONTH")
+                .get(REPORTS + "trend")
+                .then());
+    }
+
+    @When("^I request member counts for (.*) grouped by (.*)$")
+    public void iRequestMemberCounts(final String filter, final String groupBy) {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .queryParam("filter", filter)
+                .queryParam("groupBy", groupBy)
+                .get(REPORTS + "member-counts")
+                .then());
+    }
+
 }
@@ -16,10 +16,31 @@
 
 package org.eaa690.aerie.steps;
 
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.restassured.http.ContentType;
 import org.eaa690.aerie.TestContext;
+import org.eaa690.aerie.constant.PropertyKeyConstants;
+import org.eaa690.aerie.model.Property;
+import org.eaa690.aerie.model.PropertyRepository;
 import org.eaa690.aerie.model.RFIDRequest;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
 
 /**
  * Roster test steps.
@@ -31,6 +52,30 @@ public class RosterSteps extends BaseSteps {
      */
     private final String ROSTER = "roster/";
 
+    /**
+     * Allowlist signing key pair, generated once per test run.  PropertyService caches the private key, so every
+     * scenario in the run must see the same one.
+     */
+    private static KeyPair allowlistKeyPair;
+
+    /**
+     * PropertyRepository.
+     */
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    /**
+     * EntityManager.
+     */
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * TransactionTemplate.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * Constructor.
      *
@@ -49,6 +94,14 @@ public class RosterSteps extends BaseSteps {
                 .then());
     }
 
+    @Then("^The membership report should say how current it is$")
+    public void theMembershipReportShouldSayHowCurrentItIs() {
+        testContext.getValidatableResponse()
+                .assertThat()
+                .body("asOf", Matchers.notNullValue())
+                .body("updatedAt", Matchers.notNullValue());
+    }
+
     @When("^I request an update of the roster data$")
     public void iRequestUpdateRosterData() {
         testContext.setValidatableResponse(requestSpecification()
@@ -58,6 +111,25 @@ public class RosterSteps extends BaseSteps {
                 .then());
     }
 
+    @When("^I request the status of the roster sync run$")
+    public void iRequestRosterSyncRunStatus() {
+        final Long runId = testContext.getValidatableResponse().extract().jsonPath().getLong("id");
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .get(ROSTER + "sync-runs/" + runId)
+                .then());
+    }
+
+    @When("^I request the roster sync run history$")
+    public void iRequestRosterSyncRunHistory() {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .get(ROSTER + "sync-runs")
+                .then());
+    }
+
     @When("^I update member (.*)'s RFID with (.*)$")
     public void iUpdateMemberRFID(final String memberId, final String rfid) {
         final RFIDRequest rfidRequest = new RFIDRequest();
@@ -78,7 +150,7 @@ public class RosterSteps extends BaseSteps {
                 .contentType(ContentType.JSON)
                 .when()
                 .body(rfidRequest)
-                .post(ROSTER + "find-by-rfid")
+                .post(ROSTER + "find-by-id")
                 .then());
     }
 
@@ -100,4 +172,165 @@ public class RosterSteps extends BaseSteps {
                 .then());
     }
 
+    @When("^I request an export of all members$")
+    public void iRequestAnExportOfAllMembers() {
+        testContext.setValidatableResponse(requestSpecification()
+                .when()
+                .get(ROSTER + "export")
+                .then());
+    }
+
+    @Then("^The export should be CSV$")
+    public void theExportShouldBeCSV() {
+        testContext.getValidatableResponse()
+                .assertThat()
+                .contentType(Matchers.startsWith("text/csv"))
+                .body(Matchers.startsWith("id,rosterId,firstName,lastName"));
+    }
+
+    @When("^I request the first page of (.*) members' RFID data$")
+    public void iRequestTheFirstPageOfRFIDData(final String limit) {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .queryParam("limit", limit)
+                .get(ROSTER + "rfid")
+                .then());
+    }
+
+    @When("^I request the next page of members' RFID data$")
+    public void iRequestTheNextPageOfRFIDData() {
+        iRequestRFIDDataAfterCursor(Objects.toString(
+                testContext.getValidatableResponse().extract().jsonPath().getString("nextCursor"), ""));
+    }
+
+    @When("^I request members' RFID data after cursor (.*)$")
+    public void iRequestRFIDDataAfterCursor(final String cursor) {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .queryParam("cursor", cursor)
+                .get(ROSTER + "rfid")
+                .then());
+    }
+
+    @When("^I request member changes$")
+    public void iRequestMemberChanges() {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .get(ROSTER + "changes")
+                .then());
+    }
+
+    @When("^I request member changes since the returned watermark$")
+    public void iRequestMemberChangesSinceTheReturnedWatermark() {
+        iRequestMemberChangesSinceWatermark(
+                testContext.getValidatableResponse().extract().jsonPath().getString("watermark"));
+    }
+
+    @When("^I request member changes since watermark (.*)$")
+    public void iRequestMemberChangesSinceWatermark(final String watermark) {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .queryParam("since", watermark)
+                .get(ROSTER + "changes")
+                .then());
+    }
+
+    @When("^I request the RFID index stats$")
+    public void iRequestTheRFIDIndexStats() {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .get(ROSTER + "rfid-index/stats")
+                .then());
+    }
+
+    @Then("^The RFID index stats should include lookup latency$")
+    public void theRFIDIndexStatsShouldIncludeLookupLatency() {
+        testContext.getValidatableResponse()
+                .assertThat()
+                .body("size", Matchers.notNullValue())
+                .body("latencyNanosP99", Matchers.notNullValue());
+    }
+
+    @Given("^The RFID allowlist signing key is configured$")
+    public void theRFIDAllowlistSigningKeyIsConfigured() throws GeneralSecurityException {
+        synchronized (RosterSteps.class) {
+            if (allowlistKeyPair == null) {
+                final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                allowlistKeyPair = generator.generateKeyPair();
+            }
+        }
+        final String encoded = Base64.getEncoder().encodeToString(allowlistKeyPair.getPrivate().getEncoded());
+        transactionTemplate.executeWithoutResult(status -> {
+            final Property property = propertyRepository
+                    .findByKey(PropertyKeyConstants.RFID_ALLOWLIST_SIGNING_KEY)
+                    .orElseGet(Property::new);
+            property.setKey(PropertyKeyConstants.RFID_ALLOWLIST_SIGNING_KEY);
+            property.setValue(encoded);
+            property.setUpdatedAt(new Date());
+            entityManager.merge(property);
+        });
+    }
+
+    @Then("^The RFID allowlist should be a format 2 allowlist signed by the configured key$")
+    public void theRFIDAllowlistShouldBeSignedByTheConfiguredKey() throws GeneralSecurityException {
+        final byte[] body = testContext.getValidatableResponse().extract().asByteArray();
+        MatcherAssert.assertThat(new String(Arrays.copyOfRange(body, 0, 4), StandardCharsets.US_ASCII),
+                Matchers.equalTo("AERL"));
+        MatcherAssert.assertThat(body[4], Matchers.equalTo((byte) 2));
+        final Signature verifier = Signature.getInstance("SHA256withECDSAinP1363Format");
+        verifier.initVerify(allowlistKeyPair.getPublic());
+        verifier.update(body, 0, body.length - 64);
+        MatcherAssert.assertThat(verifier.verify(Arrays.copyOfRange(body, body.length - 64, body.length)),
+                Matchers.is(true));
+    }
+
+    @When("^I request the RFID allowlist$")
+    public void iRequestTheRFIDAllowlist() {
+        testContext.setValidatableResponse(requestSpecification()
+                .when()
+                .get(ROSTER + "allowlist")
+                .then());
+    }
+
+    @When("^I request the access event stats$")
+    public void iRequestTheAccessEventStats() {
+        testContext.setValidatableResponse(requestSpecification()
+                .contentType(ContentType.JSON)
+                .when()
+                .get(ROSTER + "access-events/stats")
+                .then());
+    }
+
+    @Then("^At least one access event should have been recorded$")
+    public void atLeastOneAccessEventShouldHaveBeenRecorded() {
+        testContext.getValidatableResponse()
+                .assertThat()
+                .body("recorded", Matchers.greaterThan(0));
+    }
+
+    @When("^I wait for access events to be written$")
+    public void iWaitForAccessEventsToBeWritten() throws InterruptedException {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            iRequestTheAccessEventStats();
+            if (testContext.getValidatableResponse().extract().jsonPath().getLong("written") > 0) {
+                return;
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    @Then("^At least one access event should have been written$")
+    public void atLeastOneAccessEventShouldHaveBeenWritten() {
+        testContext.getValidatableResponse()
+                .assertThat()
+                .body("written", Matchers.greaterThan(0))
+                .body("writeFailures", Matchers.equalTo(0));
+    }
+
 }
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.steps;
+
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.eaa690.aerie.SqlRecorder;
+import org.eaa690.aerie.TestContext;
+import org.eaa690.aerie.model.MemberRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Schema test steps.
+ */
+public class SchemaSteps extends BaseSteps {
+
+    /**
+     * Roster ID looked up.
+     */
+    private static final Long ROSTER_ID = 42648L;
+
+    /**
+     * RFID looked up.
+     */
+    private static final String RFID = "0004A1B2C3";
+
+    /**
+     * JdbcTemplate.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * SqlRecorder.
+     */
+    @Autowired
+    private SqlRecorder sqlRecorder;
+
+    /**
+     * Indexes used by the last explained query.
+     */
+    private List<Object> usedIndexes;
+
+    /**
+     * Constructor.
+     *
+     * @param testContext TestContext
+     */
+    public SchemaSteps(final TestContext testContext) {
+        super(testContext);
+    }
+
+    @When("^I explain MemberRepository\\.findByRosterId$")
+    public void iExplainFindByRosterId() {
+        explain(sqlRecorder.record(() -> memberRepository.findByRosterId(ROSTER_ID)), ROSTER_ID);
+    }
+
+    @When("^I explain MemberRepository\\.existsByRfidAndIdNot$")
+    public void iExplainExistsByRfidAndIdNot() {
+        // The trailing parameter is the LIMIT Hibernate adds to exists queries.
+        explain(sqlRecorder.record(() -> memberRepository.existsByRfidAndIdNot(RFID, 0L)), RFID, 0L, 1);
+    }
+
+    /**
+     * Runs EXPLAIN on the single statement a repository method prepared, bound to the parameters it was called with.
+     *
+     * @param statements statements the repository method prepared
+     * @param parameters parameters, in placeholder order
+     */
+    private void explain(final List<String> statements, final Object... parameters) {
+        MatcherAssert.assertThat(statements, Matchers.hasSize(1));
+        final String sql = statements.get(0);
+        MatcherAssert.assertThat(sql, sql.chars().filter(c -> c == '?').count(),
+                Matchers.equalTo((long) parameters.length));
+        usedIndexes = jdbcTemplate
+                .queryForList("EXPLAIN " + sql, parameters)
+                .stream()
+                .map(row -> row.get("key"))
+                .collect(Collectors.toList());
+    }
+
+    @Then("^The query plan should use index (.*)$")
+    public void queryPlanShouldUseIndex(final String index) {
+        MatcherAssert.assertThat(usedIndexes, Matchers.hasItem(index));
+    }
+
+}
@@ -13,3 +13,28 @@ Feature: reports
     Given I am an unauthenticated user
     When I request the general full membership report
     Then The request should be successful
+
+  @membershipreport @etag
+  Scenario: Unchanged membership report is not sent again
+    Given I am an unauthenticated user
+    When I request the general membership report
+    And I request the general membership report again with its ETag
+    Then The report should not be modified
+
+  @trend
+  Scenario: Retrieve monthly membership trend
+    Given I am an unauthenticated user
+    When I request the monthly membership trend
+    Then The request should be successful
+
+  @membercounts
+  Scenario: Count members by city
+    Given I am an unauthenticated user
+    When I request member counts for yePilot:true grouped by city
+    Then The request should be successful
+
+  @membercounts
+  Scenario: Count members matching any of several values
+    Given I am an unauthenticated user
+    When I request member counts for city:Atlanta,Marietta grouped by memberType
+    Then The request should be successful
@@ -7,11 +7,25 @@ Feature: Roster functions
     When I request an update of the roster data
     Then The request should be successful
 
+  @update @status
+  Scenario: Poll the status of a roster update
+    Given I am an unauthenticated user
+    When I request an update of the roster data
+    And I request the status of the roster sync run
+    Then The request should be successful
+
+  @update @history
+  Scenario: Retrieve roster sync run history
+    Given I am an unauthenticated user
+    When I request the roster sync run history
+    Then The request should be successful
+
   @report
   Scenario: Retrieve roster membership report
     Given I am an unauthenticated user
     When I request the roster membership report
     Then The request should be successful
+    And The membership report should say how current it is
 
   @expiration
   Scenario: Retrieve member expiration
@@ -36,3 +50,66 @@ Feature: Roster functions
     Given I am an unauthenticated user
     When I find a member by their RFID ABC123
     Then The request should be successful
+
+  @rfid @findByID
+  Scenario: Scan an unknown RFID
+    Given I am an unauthenticated user
+    When I find a member by their RFID NOT-A-KNOWN-TAG
+    Then A not found exception should be thrown
+
+  @rfid @accessEvents
+  Scenario: Record badge scans as access events
+    Given I am an unauthenticated user
+    When I find a member by their RFID NOT-A-KNOWN-TAG
+    And I wait for access events to be written
+    Then The request should be successful
+    And At least one access event should have been recorded
+    And At least one access event should have been written
+
+  @rfid @page
+  Scenario: Page through member's RFID data
+    Given I am an unauthenticated user
+    When I request the first page of 2 members' RFID data
+    And I request the next page of members' RFID data
+    Then The request should be successful
+
+  @rfid @page
+  Scenario: Reject an invalid member page cursor
+    Given I am an unauthenticated user
+    When I request members' RFID data after cursor not-a-cursor
+    Then A bad request exception should be thrown
+
+  @changes
+  Scenario: Follow the member change feed
+    Given I am an unauthenticated user
+    When I request member changes
+    And I request member changes since the returned watermark
+    Then The request should be successful
+
+  @changes
+  Scenario: Reject an invalid member change watermark
+    Given I am an unauthenticated user
+    When I request member changes since watermark not-a-watermark
+    Then A bad request exception should be thrown
+
+  @rfid @index
+  Scenario: Retrieve RFID index lookup latency
+    Given I am an unauthenticated user
+    When I request the RFID index stats
+    Then The request should be successful
+    And The RFID index stats should include lookup latency
+
+  @rfid @allowlist
+  Scenario: Retrieve the RFID allowlist for door controllers
+    Given I am an unauthenticated user
+    And The RFID allowlist signing key is configured
+    When I request the RFID allowlist
+    Then The request should be successful
+    And The RFID allowlist should be a format 2 allowlist signed by the configured key
+
+  @export
+  Scenario: Export all members as CSV
+    Given I am an unauthenticated user
+    When I request an export of all members
+    Then The request should be successful
+    And The export should be CSV
@@ -0,0 +1,13 @@
+@schema
+Feature: Database schema
+  Member lookups should be served by indexes
+
+  @index
+  Scenario: Member lookup by roster ID uses an index
+    When I explain MemberRepository.findByRosterId
+    Then The query plan should use index uk_member_roster_id
+
+  @index
+  Scenario: Member lookup by RFID uses an index
+    When I explain MemberRepository.existsByRfidAndIdNot
+    Then The query plan should use index uk_member_rfid